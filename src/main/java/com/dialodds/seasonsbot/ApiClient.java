@@ -1,43 +1,347 @@
 package com.dialodds.seasonsbot;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Component
 public class ApiClient {
 
-    private static final Logger logger = Logger.getLogger(ApiClient.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(ApiClient.class);
     private final RestTemplate restTemplate;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
     private final String apiBaseUrl;
+    private final String apiHost;
+    private final Duration readTimeout;
+    private final HostRequestLimiter hostLimiter;
+    private final ApiResilience resilience;
+    private final SingleFlight<URI, HttpResponse<byte[]>> getFlights = new SingleFlight<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean logPayloads;
+    private final int payloadLogLimit;
 
-    public ApiClient(RestTemplate restTemplate, @Value("${api.base.url}") String apiBaseUrl) {
+    public ApiClient(RestTemplate restTemplate, HttpClient httpClient, ObjectMapper objectMapper,
+                     ApiResilience resilience, MeterRegistry meterRegistry,
+                     @Value("${api.base.url}") String apiBaseUrl,
+                     @Value("${api.http.read.timeout.ms:10000}") long readTimeoutMs,
+                     @Value("${api.http.max.connections.per.host:20}") int maxConnectionsPerHost,
+                     @Value("${api.log.payloads:false}") boolean logPayloads,
+                     @Value("${api.log.payload.max.chars:512}") int payloadLogLimit) {
         this.restTemplate = restTemplate;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
         this.apiBaseUrl = apiBaseUrl;
+        this.apiHost = URI.create(apiBaseUrl).getHost();
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.hostLimiter = new HostRequestLimiter(maxConnectionsPerHost);
+        this.resilience = resilience;
+        this.meterRegistry = meterRegistry;
+        this.logPayloads = logPayloads;
+        this.payloadLogLimit = payloadLogLimit;
+        FunctionCounter.builder("seasonsbot.api.coalesced", getFlights, SingleFlight::joined)
+                .description("GETs that joined an identical request already in flight")
+                .register(meterRegistry);
     }
 
     private String buildUrl(String endpoint) {
         return apiBaseUrl + endpoint;
     }
 
+    /**
+     * Blocking GETs share the async path so they get the same bulkhead,
+     * breaker and hedging; the caller just waits for the winning attempt.
+     */
     private <T> ResponseEntity<T> makeGetRequest(String url, ParameterizedTypeReference<T> responseType, Object... uriVariables) {
-        logger.info("Making GET request to: " + url);
-        ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.GET, null, responseType, uriVariables);
-        logger.info("Response body: " + response.getBody());
-        return response;
+        return await(this.<T>sendAsync(HttpMethod.GET, url, responseType.getType(), uriVariables));
     }
 
     private <T> ResponseEntity<T> makePostRequest(String url, Object body, Class<T> responseType, Object... uriVariables) {
-        logger.info("Making POST request to: " + url);
-        return restTemplate.postForEntity(url, body, responseType, uriVariables);
+        logger.debug("POST {}", url);
+        return timed(HttpMethod.POST, url, () -> resilience.call(url, () -> hostLimiter.execute(apiHost,
+                () -> restTemplate.postForEntity(url, body, responseType, uriVariables))));
+    }
+
+    private <T> T timed(HttpMethod method, String url, Supplier<T> call) {
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            recordRequest(method, url, start, error);
+        }
+    }
+
+    /**
+     * Records {@code seasonsbot.api.requests}, tagged with the endpoint's URL
+     * template rather than the expanded URL so ids don't become tag values.
+     */
+    private void recordRequest(HttpMethod method, String url, long startNanos, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String outcome;
+        if (cause == null) {
+            outcome = "SUCCESS";
+        } else if (cause instanceof ApiUnavailableException) {
+            outcome = "REJECTED";
+        } else if (cause instanceof HttpClientErrorException) {
+            outcome = "CLIENT_ERROR";
+        } else if (cause instanceof HttpServerErrorException) {
+            outcome = "SERVER_ERROR";
+        } else {
+            outcome = "ERROR";
+        }
+        String endpoint = url.startsWith(apiBaseUrl) ? url.substring(apiBaseUrl.length()) : url;
+        int query = endpoint.indexOf('?');
+        Timer.builder("seasonsbot.api.requests")
+                .description("Backend requests as seen by their caller")
+                .tag("method", method.name())
+                .tag("endpoint", query < 0 ? endpoint : endpoint.substring(0, query))
+                .tag("outcome", outcome)
+                .tag("exception", cause == null ? "none" : cause.getClass().getSimpleName())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RestClientException("Request failed", e.getCause());
+        }
+    }
+
+    /**
+     * Walks a JSON array response one element at a time, handing each to
+     * {@code sink} as soon as it is read. Neither the body nor the full list is
+     * ever held in memory, and the response is abandoned as soon as the sink
+     * returns {@code false}.
+     *
+     * @return how many elements were read
+     */
+    private <T> int streamArray(String url, JsonElementReader<T> reader, Predicate<? super T> sink,
+                                Object... uriVariables) {
+        logger.debug("GET {} (streaming)", url);
+        Integer read = timed(HttpMethod.GET, url, () -> resilience.call(url, () -> hostLimiter.execute(apiHost,
+                () -> restTemplate.execute(url, HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                response -> {
+                    try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+                        if (parser.nextToken() != JsonToken.START_ARRAY) {
+                            throw new RestClientException("Expected a JSON array from " + url);
+                        }
+                        int count = 0;
+                        JsonToken token;
+                        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                            count++;
+                            if (!sink.test(reader.read(parser))) {
+                                break;
+                            }
+                        }
+                        return count;
+                    }
+                }, uriVariables))));
+        return read == null ? 0 : read;
+    }
+
+    /**
+     * Reads one array element; the parser is positioned on its first token.
+     */
+    @FunctionalInterface
+    interface JsonElementReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * Reads only the fields the bot uses, skipping everything else without
+     * building it.
+     */
+    private static User readUser(JsonParser parser) throws IOException {
+        User user = new User();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id":
+                    user.setId(parser.getIntValue());
+                    break;
+                case "discordId":
+                    user.setDiscordId(parser.getValueAsString());
+                    break;
+                case "username":
+                    user.setUsername(parser.getValueAsString());
+                    break;
+                case "coins":
+                    user.setCoins(parser.getIntValue());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return user;
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> makeGetRequestAsync(String url, ParameterizedTypeReference<T> responseType, Object... uriVariables) {
+        return sendAsync(HttpMethod.GET, url, responseType.getType(), uriVariables);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> makePostRequestAsync(String url, Class<T> responseType, Object... uriVariables) {
+        return sendAsync(HttpMethod.POST, url, responseType, uriVariables);
+    }
+
+    /**
+     * Identical concurrent GETs (same expanded URI) share one request; each
+     * caller then parses the shared body into its own objects.
+     */
+    private <T> CompletableFuture<ResponseEntity<T>> sendAsync(HttpMethod method, String url, Type responseType, Object... uriVariables) {
+        long start = System.nanoTime();
+        URI uri = restTemplate.getUriTemplateHandler().expand(url, uriVariables);
+        String correlationId = CorrelationId.current();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .method(method.name(), HttpRequest.BodyPublishers.noBody());
+        if (correlationId != null) {
+            builder.header(CorrelationId.HEADER, correlationId);
+        }
+        HttpRequest request = builder.build();
+        logger.debug("{} {}", method, uri);
+        CompletableFuture<HttpResponse<byte[]>> response = method == HttpMethod.GET
+                ? getFlights.execute(uri, () -> send(url, true, request, correlationId))
+                : send(url, false, request, correlationId);
+        return response.<ResponseEntity<T>>thenApply(r -> toResponseEntity(r, responseType))
+                .whenComplete((entity, error) -> recordRequest(method, url, start, error));
+    }
+
+    /**
+     * Only GETs are hedged; a duplicated POST or DELETE would not be harmless.
+     * Cancelling an attempt, as hedging does with the slower one, aborts its
+     * HTTP exchange.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> send(String url, boolean idempotent, HttpRequest request,
+                                                         String correlationId) {
+        return resilience.callAsync(url, idempotent, () -> {
+            CompletableFuture<HttpResponse<byte[]>> exchange = hostLimiter.executeAsync(request.uri().getHost(),
+                    () -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()));
+            CompletableFuture<HttpResponse<byte[]>> checked =
+                    exchange.thenApply(response -> checkStatus(logResponse(response, correlationId)));
+            checked.whenComplete((response, error) -> {
+                if (checked.isCancelled()) {
+                    exchange.cancel(true);
+                }
+            });
+            return checked;
+        });
+    }
+
+    /**
+     * Logs the status at DEBUG. With {@code api.log.payloads} the raw body is
+     * logged too, cut to {@code api.log.payload.max.chars}; it is never parsed
+     * or stringified for logging.
+     */
+    private HttpResponse<byte[]> logResponse(HttpResponse<byte[]> response, String correlationId) {
+        if (!logger.isDebugEnabled()) {
+            return response;
+        }
+        // Completion stages usually run on the HTTP client's threads, which don't carry the caller's MDC.
+        String previous = CorrelationId.current();
+        if (correlationId != null) {
+            MDC.put(CorrelationId.MDC_KEY, correlationId);
+        }
+        try {
+            byte[] body = response.body();
+            int length = body == null ? 0 : body.length;
+            if (!logPayloads || length == 0) {
+                logger.debug("{} {} -> {} ({} bytes)", response.request().method(), response.uri(),
+                        response.statusCode(), length);
+            } else {
+                logger.debug("{} {} -> {} ({} bytes): {}{}", response.request().method(), response.uri(),
+                        response.statusCode(), length,
+                        new String(body, 0, Math.min(length, payloadLogLimit), StandardCharsets.UTF_8),
+                        length > payloadLogLimit ? "..." : "");
+            }
+        } finally {
+            if (previous == null) {
+                MDC.remove(CorrelationId.MDC_KEY);
+            } else {
+                MDC.put(CorrelationId.MDC_KEY, previous);
+            }
+        }
+        return response;
+    }
+
+    private static HttpResponse<byte[]> checkStatus(HttpResponse<byte[]> response) {
+        HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+        if (status.isError()) {
+            HttpHeaders headers = new HttpHeaders();
+            response.headers().map().forEach(headers::addAll);
+            if (status.is4xxClientError()) {
+                throw HttpClientErrorException.create(status, "", headers, response.body(), StandardCharsets.UTF_8);
+            }
+            throw HttpServerErrorException.create(status, "", headers, response.body(), StandardCharsets.UTF_8);
+        }
+        return response;
+    }
+
+    private <T> ResponseEntity<T> toResponseEntity(HttpResponse<byte[]> response, Type responseType) {
+        HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        byte[] body = response.body();
+
+        if (responseType == Void.class || body == null || body.length == 0) {
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+
+        try {
+            JavaType javaType = objectMapper.constructType(responseType);
+            T value = objectMapper.readValue(body, javaType);
+            return ResponseEntity.status(status).headers(headers).body(value);
+        } catch (IOException e) {
+            throw new RestClientException("Failed to parse response from " + response.uri(), e);
+        }
     }
 
     public ResponseEntity<Integer> createSeason(int startWeek, int endWeek, int initialCoins) {
@@ -75,6 +379,28 @@ public class ApiClient {
         return makeGetRequest(url, new ParameterizedTypeReference<List<User>>() {}, seasonId);
     }
 
+    public int streamUsersBySeason(int seasonId, Predicate<User> sink) {
+        String url = buildUrl("/api/users/seasons/{seasonId}");
+        return streamArray(url, ApiClient::readUser, sink, seasonId);
+    }
+
+    public ResponseEntity<LeaderboardPage> getLeaderboardPage(int seasonId, int page, int size) {
+        String url = buildUrl("/api/users/seasons/{seasonId}/leaderboard?page={page}&size={size}");
+        return makeGetRequest(url, new ParameterizedTypeReference<LeaderboardPage>() {}, seasonId, page, size);
+    }
+
+    public ResponseEntity<List<SeasonLeaderboard.Standing>> getLeaderboardTop(int seasonId, int limit) {
+        String url = buildUrl("/api/users/seasons/{seasonId}/leaderboard/top?limit={limit}");
+        return makeGetRequest(url, new ParameterizedTypeReference<List<SeasonLeaderboard.Standing>>() {}, seasonId,
+                limit);
+    }
+
+    public ResponseEntity<SeasonLeaderboard.Standing> getUserRank(int seasonId, String discordId) {
+        String url = buildUrl("/api/users/seasons/{seasonId}/leaderboard/users/{discordId}");
+        return makeGetRequest(url, new ParameterizedTypeReference<SeasonLeaderboard.Standing>() {}, seasonId,
+                discordId);
+    }
+
     public ResponseEntity<Integer> getUserCoins(int userId, int seasonId) {
         String url = buildUrl("/api/users/{userId}/seasons/{seasonId}/coins");
         return makeGetRequest(url, new ParameterizedTypeReference<Integer>() {}, userId, seasonId);
@@ -90,6 +416,11 @@ public class ApiClient {
         return makeGetRequest(url, new ParameterizedTypeReference<List<Bet>>() {}, userId, seasonId);
     }
 
+    public int streamUserBets(int userId, int seasonId, Predicate<Bet> sink) {
+        String url = buildUrl("/api/bets/users/{userId}/seasons/{seasonId}");
+        return streamArray(url, parser -> objectMapper.readValue(parser, Bet.class), sink, userId, seasonId);
+    }
+
     public ResponseEntity<List<Integer>> getNflWeeks() {
         String url = buildUrl("/api/nfl/weeks");
         return makeGetRequest(url, new ParameterizedTypeReference<List<Integer>>() {});
@@ -97,10 +428,7 @@ public class ApiClient {
 
     public ResponseEntity<List<Game>> getNflGamesByWeek(int week) {
         String url = buildUrl("/api/nfl/games/{week}");
-        ResponseEntity<List<Game>> response = makeGetRequest(url, new ParameterizedTypeReference<List<Game>>() {}, week);
-        List<Game> games = response.getBody();
-        System.out.println("Parsed games: " + games);
-        return response;
+        return makeGetRequest(url, new ParameterizedTypeReference<List<Game>>() {}, week);
     }
 
     public ResponseEntity<List<Game>> getTeamSchedule(String team) {
@@ -118,12 +446,123 @@ public class ApiClient {
         return makeGetRequest(url, new ParameterizedTypeReference<Map<String, Object>>() {}, gameId);
     }
 
+    public CompletableFuture<ResponseEntity<Integer>> createSeasonAsync(int startWeek, int endWeek, int initialCoins) {
+        String url = buildUrl("/api/seasons?startWeek={startWeek}&endWeek={endWeek}&initialCoins={initialCoins}");
+        return makePostRequestAsync(url, Integer.class, startWeek, endWeek, initialCoins);
+    }
+
+    public CompletableFuture<ResponseEntity<List<Season>>> getActiveSeasonsAsync() {
+        String url = buildUrl("/api/seasons/active");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<List<Season>>() {});
+    }
+
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getSeasonByIdAsync(int seasonId) {
+        String url = buildUrl("/api/seasons/{seasonId}");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<Map<String, Object>>() {}, seasonId);
+    }
+
+    public CompletableFuture<ResponseEntity<Integer>> createUserAsync(String discordId, String username) {
+        String url = buildUrl("/api/users?discordId={discordId}&username={username}");
+        return makePostRequestAsync(url, Integer.class, discordId, username);
+    }
+
+    public CompletableFuture<ResponseEntity<Void>> addUserToSeasonAsync(int userId, int seasonId) {
+        String url = buildUrl("/api/users/{userId}/seasons/{seasonId}");
+        return makePostRequestAsync(url, Void.class, userId, seasonId);
+    }
+
+    public CompletableFuture<ResponseEntity<Void>> createUserAndJoinSeasonAsync(String discordId, String username, int seasonId) {
+        String url = buildUrl("/api/users/join-season?discordId={discordId}&username={username}&seasonId={seasonId}");
+        return makePostRequestAsync(url, Void.class, discordId, username, seasonId);
+    }
+
+    public CompletableFuture<ResponseEntity<List<User>>> getUsersBySeasonAsync(int seasonId) {
+        String url = buildUrl("/api/users/seasons/{seasonId}");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<List<User>>() {}, seasonId);
+    }
+
+    public CompletableFuture<ResponseEntity<LeaderboardPage>> getLeaderboardPageAsync(int seasonId, int page, int size) {
+        String url = buildUrl("/api/users/seasons/{seasonId}/leaderboard?page={page}&size={size}");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<LeaderboardPage>() {}, seasonId, page, size);
+    }
+
+    public CompletableFuture<ResponseEntity<List<SeasonLeaderboard.Standing>>> getLeaderboardTopAsync(int seasonId, int limit) {
+        String url = buildUrl("/api/users/seasons/{seasonId}/leaderboard/top?limit={limit}");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<List<SeasonLeaderboard.Standing>>() {},
+                seasonId, limit);
+    }
+
+    public CompletableFuture<ResponseEntity<SeasonLeaderboard.Standing>> getUserRankAsync(int seasonId, String discordId) {
+        String url = buildUrl("/api/users/seasons/{seasonId}/leaderboard/users/{discordId}");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<SeasonLeaderboard.Standing>() {}, seasonId,
+                discordId);
+    }
+
+    public CompletableFuture<ResponseEntity<Integer>> getUserCoinsAsync(int userId, int seasonId) {
+        String url = buildUrl("/api/users/{userId}/seasons/{seasonId}/coins");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<Integer>() {}, userId, seasonId);
+    }
+
+    public CompletableFuture<ResponseEntity<Integer>> placeBetAsync(int userId, int seasonId, int gameId, String betType, int amount) {
+        String url = buildUrl("/api/bets?userId={userId}&seasonId={seasonId}&gameId={gameId}&betType={betType}&amount={amount}");
+        return makePostRequestAsync(url, Integer.class, userId, seasonId, gameId, betType, amount);
+    }
+
+    public CompletableFuture<ResponseEntity<List<Bet>>> getUserBetsAsync(int userId, int seasonId) {
+        String url = buildUrl("/api/bets/users/{userId}/seasons/{seasonId}");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<List<Bet>>() {}, userId, seasonId);
+    }
+
+    public CompletableFuture<ResponseEntity<List<Integer>>> getNflWeeksAsync() {
+        String url = buildUrl("/api/nfl/weeks");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<List<Integer>>() {});
+    }
+
+    public CompletableFuture<ResponseEntity<List<Game>>> getNflGamesByWeekAsync(int week) {
+        String url = buildUrl("/api/nfl/games/{week}");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<List<Game>>() {}, week);
+    }
+
+    public CompletableFuture<ResponseEntity<List<Game>>> getTeamScheduleAsync(String team) {
+        String url = buildUrl("/api/nfl/schedule/{team}");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<List<Game>>() {}, team);
+    }
+
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getGameDetailsAsync(int gameId) {
+        String url = buildUrl("/api/nfl/games/{gameId}");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<Map<String, Object>>() {}, gameId);
+    }
+
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getGameByIdAsync(int gameId) {
+        String url = buildUrl("/api/nfl/games/id/{gameId}");
+        return makeGetRequestAsync(url, new ParameterizedTypeReference<Map<String, Object>>() {}, gameId);
+    }
+
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> deleteSeasonAsync(int seasonId) {
+        String url = buildUrl("/api/seasons/{seasonId}");
+        return this.<Map<String, Object>>sendAsync(HttpMethod.DELETE, url,
+                        new ParameterizedTypeReference<Map<String, Object>>() {}.getType(), seasonId)
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (!(cause instanceof HttpStatusCodeException e)) {
+                        throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+                    }
+                    logger.warn("Error deleting season {}: {}", seasonId, e.getMessage());
+                    return ResponseEntity.status(e.getStatusCode()).body(Map.of(
+                        "deleted", false,
+                        "message", "Error: " + e.getStatusCode() + " - " + e.getResponseBodyAsString()
+                    ));
+                });
+    }
+
     public ResponseEntity<Map<String, Object>> deleteSeason(int seasonId) {
-        String url = buildUrl("/api/seasons/" + seasonId);
+        String url = buildUrl("/api/seasons/{seasonId}");
         try {
-            return restTemplate.exchange(url, HttpMethod.DELETE, null, new ParameterizedTypeReference<Map<String, Object>>() {});
+            return timed(HttpMethod.DELETE, url, () -> resilience.call(url, () -> hostLimiter.execute(apiHost,
+                    () -> restTemplate.exchange(url, HttpMethod.DELETE, null,
+                            new ParameterizedTypeReference<Map<String, Object>>() {}, seasonId))));
         } catch (HttpStatusCodeException e) {
-            logger.warning("Error deleting season: " + e.getMessage());
+            logger.warn("Error deleting season {}: {}", seasonId, e.getMessage());
             return ResponseEntity.status(e.getStatusCode()).body(Map.of(
                 "deleted", false,
                 "message", "Error: " + e.getStatusCode() + " - " + e.getResponseBodyAsString()
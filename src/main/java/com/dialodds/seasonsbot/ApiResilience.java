@@ -0,0 +1,297 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Isolates the backend's endpoint groups from each other. Every group
+ * ({@code /api/seasons}, {@code /api/users}, {@code /api/bets},
+ * {@code /api/nfl}) gets its own circuit breaker and bulkhead, so a hanging
+ * odds feed fails fast instead of tying up the threads that serve bets.
+ * Idempotent async calls are also hedged: if the first attempt hasn't answered
+ * within {@code api.hedge.delay.ms}, or fails with something other than a 4xx,
+ * a second identical request is sent and whichever succeeds first wins. The
+ * second request needs a bulkhead slot of its own and is skipped when none is
+ * free, so a group never has more requests running than its bulkhead allows.
+ */
+@Component
+public class ApiResilience {
+
+    enum Group {
+        SEASONS, USERS, BETS, NFL, OTHER;
+
+        static Group of(String url) {
+            int api = url.indexOf("/api/");
+            if (api < 0) {
+                return OTHER;
+            }
+            String path = url.substring(api + "/api/".length());
+            for (Group group : values()) {
+                if (path.startsWith(group.name().toLowerCase(Locale.ROOT))) {
+                    return group;
+                }
+            }
+            return OTHER;
+        }
+    }
+
+    private final Map<Group, Guard> guards = new EnumMap<>(Group.class);
+    private final long bulkheadWaitMs;
+    private final long hedgeDelayMs;
+
+    public ApiResilience(MeterRegistry meterRegistry,
+                         @Value("${api.breaker.window.size:20}") int windowSize,
+                         @Value("${api.breaker.minimum.calls:10}") int minimumCalls,
+                         @Value("${api.breaker.failure.rate.percent:50}") int failureRatePercent,
+                         @Value("${api.breaker.open.seconds:30}") long openSeconds,
+                         @Value("${api.breaker.half.open.probes:2}") int halfOpenProbes,
+                         @Value("${api.bulkhead.max.concurrent:10}") int defaultBulkhead,
+                         @Value("#{${api.bulkhead.limits:{:}}}") Map<String, Integer> bulkheadLimits,
+                         @Value("${api.bulkhead.wait.ms:500}") long bulkheadWaitMs,
+                         @Value("${api.hedge.delay.ms:750}") long hedgeDelayMs) {
+        this.bulkheadWaitMs = bulkheadWaitMs;
+        this.hedgeDelayMs = hedgeDelayMs;
+        for (Group group : Group.values()) {
+            String name = group.name().toLowerCase(Locale.ROOT);
+            Guard guard = new Guard(
+                    new CircuitBreaker(windowSize, minimumCalls, failureRatePercent,
+                            TimeUnit.SECONDS.toNanos(openSeconds), halfOpenProbes),
+                    new Semaphore(bulkheadLimits.getOrDefault(name, defaultBulkhead)),
+                    Counter.builder("seasonsbot.api.rejected").tag("group", name).tag("reason", "breaker")
+                            .description("Backend calls refused because the group's circuit breaker is open")
+                            .register(meterRegistry),
+                    Counter.builder("seasonsbot.api.rejected").tag("group", name).tag("reason", "bulkhead")
+                            .description("Backend calls refused because the group's bulkhead is full")
+                            .register(meterRegistry),
+                    Counter.builder("seasonsbot.api.hedged").tag("group", name)
+                            .description("Extra attempts sent for slow or failed idempotent calls")
+                            .register(meterRegistry));
+            guards.put(group, guard);
+            Gauge.builder("seasonsbot.api.breaker.state", guard,
+                            g -> g.breaker.state(System.nanoTime()).ordinal())
+                    .tag("group", name)
+                    .description("0 = closed, 1 = half-open, 2 = open")
+                    .register(meterRegistry);
+            Gauge.builder("seasonsbot.api.bulkhead.available", guard.bulkhead, Semaphore::availablePermits)
+                    .tag("group", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Runs a blocking call under the group's bulkhead and breaker. A full
+     * bulkhead is waited on for at most {@code api.bulkhead.wait.ms}.
+     */
+    <T> T call(String url, Supplier<T> call) {
+        Guard guard = guards.get(Group.of(url));
+        try {
+            if (!guard.bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS)) {
+                throw guard.rejectBulkhead(url);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw guard.rejectBulkhead(url);
+        }
+        try {
+            CircuitBreaker.Permit permit = guard.breaker.tryAcquire(System.nanoTime());
+            if (permit == null) {
+                throw guard.rejectBreaker(url);
+            }
+            boolean success = false;
+            try {
+                T result = call.get();
+                success = true;
+                return result;
+            } catch (RuntimeException e) {
+                success = !isFailure(e);
+                throw e;
+            } finally {
+                guard.breaker.onResult(permit, success, System.nanoTime());
+            }
+        } finally {
+            guard.bulkhead.release();
+        }
+    }
+
+    /**
+     * Runs an async call under the group's bulkhead and breaker. Async callers
+     * are never parked: a full bulkhead fails the future immediately.
+     *
+     * @param idempotent whether a second attempt may be sent (hedged)
+     * @param attempt    starts one attempt; cancelling the future it returns
+     *                   must abort that attempt
+     */
+    <T> CompletableFuture<T> callAsync(String url, boolean idempotent, Supplier<CompletableFuture<T>> attempt) {
+        Guard guard = guards.get(Group.of(url));
+        if (!guard.bulkhead.tryAcquire()) {
+            return CompletableFuture.failedFuture(guard.rejectBulkhead(url));
+        }
+        CircuitBreaker.Permit permit = guard.breaker.tryAcquire(System.nanoTime());
+        if (permit == null) {
+            guard.bulkhead.release();
+            return CompletableFuture.failedFuture(guard.rejectBreaker(url));
+        }
+        CompletableFuture<T> call = idempotent && hedgeDelayMs > 0
+                ? new HedgedCall<>(guard, attempt).send()
+                : holdingSlot(guard, start(attempt));
+        return call.whenComplete((result, error) ->
+                guard.breaker.onResult(permit, error == null || !isFailure(error), System.nanoTime()));
+    }
+
+    /**
+     * Gives the attempt's bulkhead slot back once the attempt itself has
+     * finished, whether it answered, failed or was cancelled.
+     */
+    private static <T> CompletableFuture<T> holdingSlot(Guard guard, CompletableFuture<T> attempt) {
+        attempt.whenComplete((result, error) -> guard.bulkhead.release());
+        return attempt;
+    }
+
+    private static <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> attempt) {
+        try {
+            return attempt.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Client errors mean the backend is healthy and said no, so they don't
+     * count against the breaker.
+     */
+    private static boolean isFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return !(cause instanceof HttpClientErrorException) && !(cause instanceof ApiUnavailableException);
+    }
+
+    /**
+     * The first attempt of a hedged call plus at most one more. Once the call
+     * has its answer, an attempt that is still running is cancelled.
+     */
+    private final class HedgedCall<T> {
+        private final Guard guard;
+        private final Supplier<CompletableFuture<T>> attempt;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final List<CompletableFuture<T>> running = new ArrayList<>(2);
+        private int pending = 1;
+        private boolean hedgeSent;
+
+        HedgedCall(Guard guard, Supplier<CompletableFuture<T>> attempt) {
+            this.guard = guard;
+            this.attempt = attempt;
+        }
+
+        /**
+         * Sends the first attempt, which must already hold a bulkhead slot.
+         */
+        CompletableFuture<T> send() {
+            // Still needed for a caller that cancels or times out the call itself.
+            result.whenComplete((value, error) -> cancelRunning());
+            launch();
+            CompletableFuture.delayedExecutor(hedgeDelayMs, TimeUnit.MILLISECONDS).execute(this::sendHedge);
+            return result;
+        }
+
+        private void sendHedge() {
+            synchronized (this) {
+                if (result.isDone() || hedgeSent) {
+                    return;
+                }
+                hedgeSent = true;
+                if (!guard.bulkhead.tryAcquire()) {
+                    // The group is at its limit; the first attempt carries on alone.
+                    return;
+                }
+                pending++;
+            }
+            guard.hedged.increment();
+            launch();
+        }
+
+        private void launch() {
+            CompletableFuture<T> future = holdingSlot(guard, start(attempt));
+            synchronized (this) {
+                running.add(future);
+            }
+            if (result.isDone()) {
+                // Answered while this attempt was being sent.
+                future.cancel(true);
+            }
+            future.whenComplete((value, error) -> onAttempt(future, value, error));
+        }
+
+        private void onAttempt(CompletableFuture<T> future, T value, Throwable error) {
+            if (error == null) {
+                // Cancelled first, so by the time a caller sees the answer the loser has let go of its slot.
+                cancelRunning();
+                result.complete(value);
+                return;
+            }
+            if (!isFailure(error)) {
+                // The backend answered; asking again would get the same 4xx.
+                cancelRunning();
+                result.completeExceptionally(error);
+                return;
+            }
+            sendHedge();
+            boolean last;
+            synchronized (this) {
+                running.remove(future);
+                last = --pending == 0;
+            }
+            if (last) {
+                result.completeExceptionally(error);
+            }
+        }
+
+        private void cancelRunning() {
+            List<CompletableFuture<T>> losers;
+            synchronized (this) {
+                losers = new ArrayList<>(running);
+            }
+            losers.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static final class Guard {
+        private final CircuitBreaker breaker;
+        private final Semaphore bulkhead;
+        private final Counter breakerRejections;
+        private final Counter bulkheadRejections;
+        private final Counter hedged;
+
+        Guard(CircuitBreaker breaker, Semaphore bulkhead, Counter breakerRejections, Counter bulkheadRejections,
+              Counter hedged) {
+            this.breaker = breaker;
+            this.bulkhead = bulkhead;
+            this.breakerRejections = breakerRejections;
+            this.bulkheadRejections = bulkheadRejections;
+            this.hedged = hedged;
+        }
+
+        ApiUnavailableException rejectBreaker(String url) {
+            breakerRejections.increment();
+            return new ApiUnavailableException("The backend is unavailable right now (circuit open for " + url + ")");
+        }
+
+        ApiUnavailableException rejectBulkhead(String url) {
+            bulkheadRejections.increment();
+            return new ApiUnavailableException("The backend is too busy right now (bulkhead full for " + url + ")");
+        }
+    }
+}
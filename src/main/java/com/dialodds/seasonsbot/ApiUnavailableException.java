@@ -0,0 +1,14 @@
+package com.dialodds.seasonsbot;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown without contacting the backend when an endpoint group's circuit
+ * breaker is open or its bulkhead is full.
+ */
+public class ApiUnavailableException extends RestClientException {
+
+    public ApiUnavailableException(String message) {
+        super(message);
+    }
+}
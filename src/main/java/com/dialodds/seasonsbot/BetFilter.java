@@ -0,0 +1,78 @@
+package com.dialodds.seasonsbot;
+
+import java.util.Locale;
+
+/**
+ * The optional {@code !my_bets} filters: a result and/or a week. A
+ * {@code null} result or a week of 0 means "any".
+ */
+record BetFilter(BetTable.Result result, int week) {
+
+    private static final String ANY_RESULT = "all";
+
+    /**
+     * Parses command arguments such as {@code pending}, {@code week 5} or
+     * {@code won week 3}.
+     */
+    static BetFilter parse(String[] args) {
+        BetTable.Result result = null;
+        int week = 0;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i].toLowerCase(Locale.ROOT);
+            if (arg.equals("week")) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Please give a week number after `week`.");
+                }
+                week = parseWeek(args[++i]);
+            } else if (!arg.equals(ANY_RESULT)) {
+                result = parseResult(arg);
+            }
+        }
+        return new BetFilter(result, week);
+    }
+
+    static BetFilter decode(String result, String week) {
+        return new BetFilter(result.equals(ANY_RESULT) ? null : BetTable.Result.valueOf(result), parseWeek(week));
+    }
+
+    String encode() {
+        return (result == null ? ANY_RESULT : result.name()) + ":" + week;
+    }
+
+    boolean isEmpty() {
+        return result == null && week == 0;
+    }
+
+    /**
+     * @return e.g. "pending bets in Week 5"
+     */
+    String describe() {
+        String bets = result == null ? "bets" : result.name().toLowerCase(Locale.ROOT) + " bets";
+        return week == 0 ? bets : bets + " in Week " + week;
+    }
+
+    private static BetTable.Result parseResult(String arg) {
+        switch (arg) {
+            case "pending":
+                return BetTable.Result.PENDING;
+            case "won":
+                return BetTable.Result.WON;
+            case "lost":
+                return BetTable.Result.LOST;
+            default:
+                throw new IllegalArgumentException("Unknown filter `" + arg + "`. Use pending, won, lost or week <n>.");
+        }
+    }
+
+    private static int parseWeek(String arg) {
+        try {
+            int week = Integer.parseInt(arg);
+            if (week < 0) {
+                throw new IllegalArgumentException("Week numbers can't be negative.");
+            }
+            return week;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("`" + arg + "` is not a valid week number.");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps each user's bets for a season as a {@link BetTable}, keyed by user and
+ * season, so paging and filtering {@code !my_bets} costs one streamed request
+ * for the first page and none for the rest. Entries expire after
+ * {@code bot.bets.history.ttl.seconds} and are dropped whenever the bot places
+ * a bet for that user and season.
+ */
+@Component
+public class BetHistoryCache {
+
+    private final ApiClient apiClient;
+    private final SeasonCalendar seasonCalendar;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public BetHistoryCache(ApiClient apiClient, SeasonCalendar seasonCalendar, MeterRegistry meterRegistry,
+                           @Value("${bot.bets.history.max.entries:1000}") int maxEntries,
+                           @Value("${bot.bets.history.ttl.seconds:60}") long ttlSeconds) {
+        this.apiClient = apiClient;
+        this.seasonCalendar = seasonCalendar;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("seasonsbot.bethistory.hits").register(meterRegistry);
+        this.misses = Counter.builder("seasonsbot.bethistory.misses").register(meterRegistry);
+        Gauge.builder("seasonsbot.bethistory.size", this, BetHistoryCache::size).register(meterRegistry);
+    }
+
+    /**
+     * @param result only bets with this result, or {@code null} for all of them
+     * @param week   only bets on games in this week, or 0 for every week
+     * @param page   zero-based page number
+     */
+    public Page page(int userId, int seasonId, BetTable.Result result, int week, int page, int pageSize) {
+        BetTable table = table(userId, seasonId);
+        int[] matches = new int[table.size()];
+        int matched = 0;
+        for (int row = 0; row < table.size(); row++) {
+            if ((result == null || table.result(row) == result) && inWeek(table.gameId(row), week)) {
+                matches[matched++] = row;
+            }
+        }
+        int from = Math.min(page * pageSize, matched);
+        int to = Math.min(from + pageSize, matched);
+        return new Page(table, Arrays.copyOfRange(matches, from, to), page, matched,
+                (matched + pageSize - 1) / pageSize);
+    }
+
+    public void invalidate(int userId, int seasonId) {
+        synchronized (entries) {
+            entries.remove(key(userId, seasonId));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private BetTable table(int userId, int seasonId) {
+        long key = key(userId, seasonId);
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now < entry.expiresAt) {
+                hits.increment();
+                return entry.table;
+            }
+        }
+        misses.increment();
+
+        BetTable.Builder builder = new BetTable.Builder();
+        apiClient.streamUserBets(userId, seasonId, bet -> {
+            builder.add(bet);
+            return true;
+        });
+        BetTable table = builder.build();
+        synchronized (entries) {
+            entries.put(key, new Entry(table, now + ttlNanos));
+        }
+        return table;
+    }
+
+    /**
+     * A game the schedule does not list can't be placed in a week, so its
+     * bets are shown under every week rather than hidden.
+     */
+    private boolean inWeek(int gameId, int week) {
+        if (week == 0) {
+            return true;
+        }
+        int gameWeek = seasonCalendar.weekOfGame(gameId);
+        return gameWeek == week || gameWeek == 0;
+    }
+
+    private static long key(int userId, int seasonId) {
+        return ((long) userId << 32) | (seasonId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * One page of matching bets: {@code rows} index into {@code table}.
+     */
+    public record Page(BetTable table, int[] rows, int page, int totalMatches, int totalPages) {
+    }
+
+    private record Entry(BetTable table, long expiresAt) {
+    }
+}
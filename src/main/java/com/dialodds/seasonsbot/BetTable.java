@@ -0,0 +1,204 @@
+package com.dialodds.seasonsbot;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bets stored column by column in primitive arrays, so a cached season costs
+ * a handful of arrays rather than one object (plus a {@code Date} and several
+ * Strings) per bet. Teams are {@link NflTeams} IDs, with any other name
+ * numbered after them in a dictionary private to the table, and timestamps
+ * are unsigned epoch seconds. Once the dictionary is full, further names are
+ * kept as-is beside the row. Rows keep the backend's order.
+ */
+public final class BetTable {
+
+    public enum Result {
+        PENDING, WON, LOST
+    }
+
+    private static final int MAX_TEAMS = 255;
+    private static final byte HOME_FLAG = 0x4;
+    private static final byte RESULT_MASK = 0x3;
+    private static final Result[] RESULTS = Result.values();
+
+    private final int size;
+    private final int[] ids;
+    private final int[] gameIds;
+    private final int[] amounts;
+    private final int[] createdAt;
+    private final byte[] homeTeams;
+    private final byte[] awayTeams;
+    // Bit 2: bet on the home team, bits 0-1: Result ordinal.
+    private final byte[] flags;
+    private final String[] otherTeams;
+    // Names that arrived after the dictionary filled, keyed by row * 2, plus 1 for the away team.
+    private final Map<Integer, String> overflowTeams;
+
+    private BetTable(Builder builder) {
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.gameIds = Arrays.copyOf(builder.gameIds, size);
+        this.amounts = Arrays.copyOf(builder.amounts, size);
+        this.createdAt = Arrays.copyOf(builder.createdAt, size);
+        this.homeTeams = Arrays.copyOf(builder.homeTeams, size);
+        this.awayTeams = Arrays.copyOf(builder.awayTeams, size);
+        this.flags = Arrays.copyOf(builder.flags, size);
+        this.otherTeams = builder.otherTeams.toArray(new String[0]);
+        this.overflowTeams = Map.copyOf(builder.overflowTeams);
+    }
+
+    public static BetTable of(List<Bet> bets) {
+        Builder builder = new Builder(bets.size());
+        bets.forEach(builder::add);
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int id(int row) {
+        return ids[row];
+    }
+
+    public int gameId(int row) {
+        return gameIds[row];
+    }
+
+    public int amount(int row) {
+        return amounts[row];
+    }
+
+    /**
+     * @return when the bet was placed, or {@code null} if the backend did not say
+     */
+    public Instant createdAt(int row) {
+        return createdAt[row] == 0 ? null : Instant.ofEpochSecond(Integer.toUnsignedLong(createdAt[row]));
+    }
+
+    public String homeTeam(int row) {
+        return teamName(homeTeams[row], row * 2);
+    }
+
+    public String awayTeam(int row) {
+        return teamName(awayTeams[row], row * 2 + 1);
+    }
+
+    public boolean onHomeTeam(int row) {
+        return (flags[row] & HOME_FLAG) != 0;
+    }
+
+    public String teamBetOn(int row) {
+        return onHomeTeam(row) ? homeTeam(row) : awayTeam(row);
+    }
+
+    public Result result(int row) {
+        return RESULTS[flags[row] & RESULT_MASK];
+    }
+
+    private String teamName(byte id, int overflowKey) {
+        if (id == NflTeams.UNKNOWN) {
+            return overflowTeams.get(overflowKey);
+        }
+        int index = Byte.toUnsignedInt(id) - NflTeams.COUNT;
+        return index < 0 ? NflTeams.name(id) : otherTeams[index];
+    }
+
+    public static final class Builder {
+        private int size;
+        private int[] ids;
+        private int[] gameIds;
+        private int[] amounts;
+        private int[] createdAt;
+        private byte[] homeTeams;
+        private byte[] awayTeams;
+        private byte[] flags;
+        private final List<String> otherTeams = new ArrayList<>();
+        private final Map<String, Byte> otherTeamIds = new HashMap<>();
+        private final Map<Integer, String> overflowTeams = new HashMap<>();
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(1, expectedSize);
+            ids = new int[capacity];
+            gameIds = new int[capacity];
+            amounts = new int[capacity];
+            createdAt = new int[capacity];
+            homeTeams = new byte[capacity];
+            awayTeams = new byte[capacity];
+            flags = new byte[capacity];
+        }
+
+        public Builder add(Bet bet) {
+            if (size == ids.length) {
+                grow();
+            }
+            Date placedAt = bet.getCreatedAt();
+            ids[size] = bet.getId();
+            gameIds[size] = bet.getGameId();
+            amounts[size] = bet.getAmount();
+            createdAt[size] = placedAt == null ? 0 : (int) (placedAt.getTime() / 1000);
+            homeTeams[size] = teamId(bet.getHomeTeam(), size * 2);
+            awayTeams[size] = teamId(bet.getAwayTeam(), size * 2 + 1);
+            flags[size] = (byte) (("HOME".equalsIgnoreCase(bet.getBetType()) ? HOME_FLAG : 0)
+                    | resultOf(bet.getResult()).ordinal());
+            size++;
+            return this;
+        }
+
+        public BetTable build() {
+            return new BetTable(this);
+        }
+
+        /**
+         * Numbers names outside the NFL table after it; once every ID is taken
+         * further names are stored as {@link NflTeams#UNKNOWN} with the name
+         * itself kept under {@code overflowKey}.
+         */
+        private byte teamId(String name, int overflowKey) {
+            byte id = NflTeams.id(name);
+            if (id != NflTeams.UNKNOWN || name == null) {
+                return id;
+            }
+            Byte other = otherTeamIds.get(name);
+            if (other != null) {
+                return other;
+            }
+            if (NflTeams.COUNT + otherTeams.size() >= MAX_TEAMS) {
+                overflowTeams.put(overflowKey, name);
+                return NflTeams.UNKNOWN;
+            }
+            byte assigned = (byte) (NflTeams.COUNT + otherTeams.size());
+            otherTeams.add(name);
+            otherTeamIds.put(name, assigned);
+            return assigned;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            gameIds = Arrays.copyOf(gameIds, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            homeTeams = Arrays.copyOf(homeTeams, capacity);
+            awayTeams = Arrays.copyOf(awayTeams, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+
+        private static Result resultOf(String result) {
+            if (result == null || result.isEmpty()) {
+                return Result.PENDING;
+            }
+            return result.equalsIgnoreCase("won") ? Result.WON : Result.LOST;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.dialodds.seasonsbot;
+
+import java.util.Arrays;
+
+/**
+ * Count-based circuit breaker. While closed it records the outcome of the last
+ * {@code windowSize} calls and opens once the failure rate crosses the
+ * threshold. After {@code openNanos} it lets {@code halfOpenProbes} calls
+ * through; if they all succeed it closes again, and any failure re-opens it.
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    /**
+     * Handed out for every admitted call and handed back with its outcome, so
+     * a call admitted before a state change can't be mistaken for a probe.
+     */
+    static final class Permit {
+        private final boolean probe;
+        private final long generation;
+
+        private Permit(boolean probe, long generation) {
+            this.probe = probe;
+            this.generation = generation;
+        }
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final boolean[] outcomes;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int probesAdmitted;
+    private int probeSuccesses;
+
+    CircuitBreaker(int windowSize, int minimumCalls, int failureRatePercent, long openNanos, int halfOpenProbes) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRatePercent = failureRatePercent;
+        this.openNanos = openNanos;
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.outcomes = new boolean[this.windowSize];
+    }
+
+    /**
+     * @return a permit for the call, or {@code null} if it must be rejected
+     */
+    synchronized Permit tryAcquire(long nowNanos) {
+        if (state == State.OPEN) {
+            if (nowNanos - openedAt < openNanos) {
+                return null;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesAdmitted == halfOpenProbes) {
+                return null;
+            }
+            probesAdmitted++;
+            return new Permit(true, generation);
+        }
+        return new Permit(false, generation);
+    }
+
+    synchronized void onResult(Permit permit, boolean success, long nowNanos) {
+        if (permit.generation != generation) {
+            return;
+        }
+        if (permit.probe) {
+            if (!success) {
+                open(nowNanos);
+            } else if (++probeSuccesses == halfOpenProbes) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (outcomes[next] && recorded == windowSize) {
+            failures--;
+        }
+        outcomes[next] = !success;
+        next = (next + 1) % windowSize;
+        recorded = Math.min(recorded + 1, windowSize);
+        if (!success) {
+            failures++;
+        }
+        if (recorded >= minimumCalls && failures * 100 >= failureRatePercent * recorded) {
+            open(nowNanos);
+        }
+    }
+
+    synchronized State state(long nowNanos) {
+        if (state == State.OPEN && nowNanos - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private void open(long nowNanos) {
+        transition(State.OPEN);
+        openedAt = nowNanos;
+    }
+
+    private void transition(State newState) {
+        state = newState;
+        generation++;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        probesAdmitted = 0;
+        probeSuccesses = 0;
+        Arrays.fill(outcomes, false);
+    }
+}
@@ -0,0 +1,157 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs command handlers on a bounded worker pool so a slow backend call never
+ * blocks the JDA event thread. Every command holds a global slot and a
+ * per-command slot while it is queued or running; when either is exhausted the
+ * command is rejected and the caller is expected to tell the user to retry.
+ * The caller's MDC, and with it the {@link CorrelationId}, is carried over to
+ * the worker.
+ */
+@Component
+public class CommandDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandDispatcher.class);
+
+    private final ExecutorService executor;
+    private final Semaphore globalPermits;
+    private final int defaultCommandLimit;
+    private final Map<String, Integer> commandLimits;
+    private final Map<String, Semaphore> commandPermits = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+    private final CommandMetrics commandMetrics;
+
+    public CommandDispatcher(MeterRegistry meterRegistry, CommandMetrics commandMetrics,
+                             @Value("${bot.dispatch.threads:8}") int threads,
+                             @Value("${bot.dispatch.queue.capacity:200}") int queueCapacity,
+                             @Value("${bot.dispatch.command.limit:20}") int defaultCommandLimit,
+                             @Value("#{${bot.dispatch.command.limits:{:}}}") Map<String, Integer> commandLimits,
+                             @Value("${bot.dispatch.virtual.threads:false}") boolean virtualThreads) {
+        this.executor = virtualThreads ? newVirtualThreadExecutor(threads) : newWorkerPool(threads);
+        this.globalPermits = new Semaphore(threads + queueCapacity);
+        this.defaultCommandLimit = defaultCommandLimit;
+        this.commandLimits = Map.copyOf(commandLimits);
+        this.commandMetrics = commandMetrics;
+
+        Gauge.builder("seasonsbot.dispatch.queue.depth", queued, AtomicInteger::get)
+                .description("Commands waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("seasonsbot.dispatch.active", running, AtomicInteger::get)
+                .description("Commands currently executing")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("seasonsbot.dispatch.wait")
+                .description("Time a command spent queued before a worker picked it up")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("seasonsbot.dispatch.rejected")
+                .description("Commands rejected because the dispatcher was saturated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a command for execution.
+     *
+     * @return {@code false} if the dispatcher or the command's own limit is saturated
+     */
+    public boolean dispatch(String command, Runnable task) {
+        Semaphore commandSlot = commandPermits.computeIfAbsent(command,
+                key -> new Semaphore(commandLimits.getOrDefault(key, defaultCommandLimit)));
+
+        if (!globalPermits.tryAcquire()) {
+            rejectedCounter.increment();
+            return false;
+        }
+        if (!commandSlot.tryAcquire()) {
+            globalPermits.release();
+            rejectedCounter.increment();
+            return false;
+        }
+
+        long enqueuedAt = System.nanoTime();
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        queued.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                queued.decrementAndGet();
+                running.incrementAndGet();
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                CommandMetrics.Invocation invocation = commandMetrics.start(command);
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    invocation.failed(e);
+                    logger.warn("Unhandled error in command {}", command, e);
+                } finally {
+                    invocation.stop();
+                    MDC.clear();
+                    running.decrementAndGet();
+                    commandSlot.release();
+                    globalPermits.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            commandSlot.release();
+            globalPermits.release();
+            rejectedCounter.increment();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newWorkerPool(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "command-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // The queue itself is unbounded; capacity is enforced by globalPermits.
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+
+    private static ExecutorService newVirtualThreadExecutor(int fallbackThreads) {
+        // Compiled for Java 17, so virtual threads are only available when running on 21+.
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads are not available on this JVM, using a platform thread pool");
+            return newWorkerPool(fallbackThreads);
+        }
+    }
+}
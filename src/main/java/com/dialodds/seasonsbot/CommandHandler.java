@@ -2,7 +2,6 @@ package com.dialodds.seasonsbot;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
-import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
@@ -11,55 +10,84 @@ import net.dv8tion.jda.api.exceptions.ErrorResponseException;
 import net.dv8tion.jda.api.exceptions.InsufficientPermissionException;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.utils.FileUpload;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
-import javax.imageio.ImageIO;
 import java.awt.Color;
-import java.awt.Graphics;
-import java.awt.Font;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.Instant;
-import java.time.LocalDate;
-import java.time.Month;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
 
 @Component
 public class CommandHandler extends ListenerAdapter {
 
+    private static final Logger logger = LoggerFactory.getLogger(CommandHandler.class);
     private static final Color NFL_BLUE = new Color(0, 53, 148);
     private static final Color DISCORD_BLURPLE = new Color(114, 137, 218);
     private static final int MAX_MESSAGES_TO_DELETE = 100;
+    private static final String VIEW_WEEK = "week";
+    private static final String VIEW_TEAM = "team";
+    private static final int LEADERBOARD_PAGE_SIZE = 10;
+    private static final int BETS_PAGE_SIZE = 10;
+    private static final Set<String> COMMANDS = Set.of(
+            "create_season", "join_season", "bet", "my_bets", "balance", "leaderboard", "season_info",
+            "active_seasons", "nfl_weeks", "nfl_games", "team_schedule", "help", "delete_season", "purge");
 
     @Autowired
     private final ApiClient apiClient;
 
-    private final ConcurrentMap<String, Boolean> processedMessages;
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-    private final Map<String, List<Game>> activeGamesCache = new HashMap<>();
+    private final CommandDispatcher dispatcher;
+    private final UserIdCache userIdCache;
+    private final MatchupImageRenderer imageRenderer;
+    private final MessageDeduplicator messageDeduplicator;
+    private final ScheduleCache scheduleCache;
+    private final SeasonCalendar seasonCalendar;
+    private final OddsTracker oddsTracker;
+    private final LeaderboardEngine leaderboardEngine;
+    private final BetHistoryCache betHistoryCache;
+    private final CommandMetrics commandMetrics;
+    private final CommandRateLimiter rateLimiter;
+    private final OutboundScheduler outbound;
+
+    @Value("${bot.bet.preflight.timeout.ms:5000}")
+    private long betPreflightTimeoutMs = 5000;
+
+    @Value("${bot.ratelimit.notice.seconds:5}")
+    private long slowDownNoticeSeconds = 5;
 
     @Autowired
-    public CommandHandler(ApiClient apiClient) {
+    public CommandHandler(ApiClient apiClient, CommandDispatcher dispatcher, UserIdCache userIdCache,
+                          MatchupImageRenderer imageRenderer, MessageDeduplicator messageDeduplicator,
+                          ScheduleCache scheduleCache, SeasonCalendar seasonCalendar,
+                          OddsTracker oddsTracker, LeaderboardEngine leaderboardEngine,
+                          BetHistoryCache betHistoryCache, CommandMetrics commandMetrics,
+                          CommandRateLimiter rateLimiter, OutboundScheduler outbound) {
         this.apiClient = apiClient;
-        this.processedMessages = new ConcurrentHashMap<>();
-    }
-
-    CommandHandler(ApiClient apiClient, ConcurrentMap<String, Boolean> processedMessages) {
-        this.apiClient = apiClient;
-        this.processedMessages = processedMessages;
+        this.dispatcher = dispatcher;
+        this.userIdCache = userIdCache;
+        this.imageRenderer = imageRenderer;
+        this.messageDeduplicator = messageDeduplicator;
+        this.scheduleCache = scheduleCache;
+        this.seasonCalendar = seasonCalendar;
+        this.oddsTracker = oddsTracker;
+        this.leaderboardEngine = leaderboardEngine;
+        this.betHistoryCache = betHistoryCache;
+        this.commandMetrics = commandMetrics;
+        this.rateLimiter = rateLimiter;
+        this.outbound = outbound;
     }
 
     @Override
@@ -68,17 +96,41 @@ public class CommandHandler extends ListenerAdapter {
             return;
         }
 
-        String messageId = event.getMessageId();
-        if (processedMessages.putIfAbsent(messageId, Boolean.TRUE) != null) {
+        if (!messageDeduplicator.firstSeen(event.getMessageIdLong())) {
             return;
         }
 
-        scheduler.schedule(() -> processedMessages.remove(messageId), 5, TimeUnit.SECONDS);
-
         String[] args = event.getMessage().getContentRaw().split("\\s+");
         String command = args[0].substring(1).toLowerCase();
 
-        event.getChannel().sendTyping().queue();
+        String dispatchKey = COMMANDS.contains(command) ? command : "unknown";
+        long guildId = event.isFromGuild() ? event.getGuild().getIdLong() : 0;
+        CommandRateLimiter.Throttle throttle = rateLimiter.tryAcquire(event.getAuthor().getIdLong(), guildId,
+                dispatchKey);
+        if (throttle != null) {
+            if (throttle.warn()) {
+                // Deleted again shortly so the channel isn't cluttered by the bot's own warnings.
+                outbound.reply(event.getChannel(), event.getMessage().reply(slowDownMessage(throttle)),
+                        notice -> notice.delete().queueAfter(slowDownNoticeSeconds, TimeUnit.SECONDS,
+                                null, this::logError));
+            }
+            return;
+        }
+
+        CorrelationId.set(event.getMessageId());
+        try {
+            if (!dispatcher.dispatch(dispatchKey, () -> handleCommand(event, command, args))) {
+                logger.debug("Rejected {} from {}: dispatcher saturated", dispatchKey, event.getAuthor().getId());
+                reply(event, event.getChannel()
+                        .sendMessage("The bot is busy right now, please try again in a moment."));
+            }
+        } finally {
+            CorrelationId.clear();
+        }
+    }
+
+    private void handleCommand(MessageReceivedEvent event, String command, String[] args) {
+        outbound.typing(event.getChannel());
 
         switch (command) {
             case "create_season":
@@ -124,18 +176,26 @@ public class CommandHandler extends ListenerAdapter {
                 handlePurge(event, args);
                 break;
             default:
-                event.getChannel().sendMessage("Unknown command. Type !help for a list of commands.").queue();
+                reply(event, event.getChannel().sendMessage("Unknown command. Type !help for a list of commands."));
         }
     }
 
+    /**
+     * Sends a channel message through the {@link OutboundScheduler}.
+     */
+    private void reply(MessageReceivedEvent event, RestAction<?> action) {
+        outbound.reply(event.getChannel(), action);
+    }
+
     private void sendErrorEmbed(MessageReceivedEvent event, String title, String... descriptions) {
+        commandMetrics.invalidInput();
         EmbedBuilder errorEmbed = new EmbedBuilder()
                 .setColor(Color.RED)
                 .setTitle("Error: " + title);
         for (String desc : descriptions) {
             errorEmbed.addField("", desc, false);
         }
-        event.getChannel().sendMessageEmbeds(errorEmbed.build()).queue();
+        reply(event, event.getChannel().sendMessageEmbeds(errorEmbed.build()));
     }
 
     private void handleCreateSeason(MessageReceivedEvent event, String[] args) {
@@ -171,13 +231,14 @@ public class CommandHandler extends ListenerAdapter {
                     .setFooter("Created by " + event.getAuthor().getName(), event.getAuthor().getEffectiveAvatarUrl())
                     .setTimestamp(Instant.now());
 
-            event.getChannel().sendMessageEmbeds(successEmbed.build()).queue();
+            reply(event, event.getChannel().sendMessageEmbeds(successEmbed.build()));
         } catch (NumberFormatException e) {
             sendErrorEmbed(event, "Invalid Input",
                     "Please enter valid numbers for weeks and coins.",
                     "Correct Usage: `!create_season <start_week> <end_week> <initial_coins>`",
                     "Example: `!create_season 1 17 1000`");
         } catch (Exception e) {
+            commandMetrics.failed(e);
             sendErrorEmbed(event, "Season Creation Failed",
                     "An error occurred while creating the season. Please try again.",
                     "Error Details: " + e.getMessage());
@@ -200,6 +261,7 @@ public class CommandHandler extends ListenerAdapter {
             ResponseEntity<Void> joinResponse = apiClient.createUserAndJoinSeason(discordId, username, seasonId);
 
             if (joinResponse.getStatusCode().is2xxSuccessful()) {
+                leaderboardEngine.invalidate(seasonId);
                 EmbedBuilder successEmbed = new EmbedBuilder()
                         .setColor(Color.GREEN)
                         .setTitle("Successfully Joined Season")
@@ -207,7 +269,7 @@ public class CommandHandler extends ListenerAdapter {
                         .addField("Season ID", String.valueOf(seasonId), true)
                         .setFooter("Joined by " + username, event.getAuthor().getEffectiveAvatarUrl())
                         .setTimestamp(Instant.now());
-                event.getChannel().sendMessageEmbeds(successEmbed.build()).queue();
+                reply(event, event.getChannel().sendMessageEmbeds(successEmbed.build()));
             } else {
                 throw new Exception("Failed to join season. Status code: " + joinResponse.getStatusCode().value());
             }
@@ -217,6 +279,7 @@ public class CommandHandler extends ListenerAdapter {
                     "Correct Usage: `!join_season <season_id>`",
                     "Example: `!join_season 123`");
         } catch (Exception e) {
+            commandMetrics.failed(e);
             sendErrorEmbed(event, "Failed to Join Season",
                     "An error occurred while joining the season. Please try again.",
                     "Error Details: " + e.getMessage());
@@ -243,6 +306,7 @@ public class CommandHandler extends ListenerAdapter {
                     String message = (String) responseBody.get("message");
 
                     if (deleted) {
+                        leaderboardEngine.remove(seasonId);
                         EmbedBuilder successEmbed = new EmbedBuilder()
                                 .setColor(Color.GREEN)
                                 .setTitle("Season Deleted Successfully")
@@ -251,7 +315,7 @@ public class CommandHandler extends ListenerAdapter {
                                         event.getAuthor().getEffectiveAvatarUrl())
                                 .setTimestamp(Instant.now());
 
-                        event.getChannel().sendMessageEmbeds(successEmbed.build()).queue();
+                        reply(event, event.getChannel().sendMessageEmbeds(successEmbed.build()));
                     } else {
                         sendErrorEmbed(event, "Failed to Delete Season", message);
                     }
@@ -267,6 +331,7 @@ public class CommandHandler extends ListenerAdapter {
                     "Correct Usage: `!delete_season <season_id>`",
                     "Example: `!delete_season 123`");
         } catch (Exception e) {
+            commandMetrics.failed(e);
             sendErrorEmbed(event, "Failed to Delete Season",
                     "An error occurred while deleting the season. Please try again.",
                     "Error Details: " + e.getMessage());
@@ -295,8 +360,29 @@ public class CommandHandler extends ListenerAdapter {
             String discordId = event.getAuthor().getId();
             String username = event.getAuthor().getName();
 
-            ResponseEntity<Integer> userResponse = apiClient.createUser(discordId, username);
-            Integer userIdWrapper = userResponse.getBody();
+            // User and game lookups are independent and the balance lookup only waits on the
+            // user ID, so all three run concurrently against one shared deadline.
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(betPreflightTimeoutMs);
+            CompletableFuture<Integer> userFuture = userIdCache.resolveAsync(discordId, username);
+            CompletableFuture<ResponseEntity<Map<String, Object>>> gameFuture = apiClient.getGameByIdAsync(gameId);
+            CompletableFuture<ResponseEntity<Integer>> coinsFuture = userFuture.thenCompose(resolvedUserId ->
+                    resolvedUserId == null
+                            ? CompletableFuture.completedFuture(ResponseEntity.ok().<Integer>build())
+                            : userIdCache.invalidateOnNotFound(discordId,
+                                    apiClient.getUserCoinsAsync(resolvedUserId, seasonId)));
+
+            Integer userIdWrapper;
+            ResponseEntity<Map<String, Object>> gameResponse;
+            ResponseEntity<Integer> coinsResponse;
+            try {
+                userIdWrapper = awaitBefore(userFuture, deadline);
+                gameResponse = awaitBefore(gameFuture, deadline);
+                coinsResponse = awaitBefore(coinsFuture, deadline);
+            } finally {
+                gameFuture.cancel(true);
+                coinsFuture.cancel(true);
+            }
+
             if (userIdWrapper == null) {
                 sendErrorEmbed(event, "User Creation Failed",
                         "Failed to create or retrieve user. Please try again.");
@@ -304,7 +390,6 @@ public class CommandHandler extends ListenerAdapter {
             }
             int userId = userIdWrapper.intValue();
 
-            ResponseEntity<Map<String, Object>> gameResponse = apiClient.getGameById(gameId);
             if (gameResponse.getStatusCode() == HttpStatus.NOT_FOUND) {
                 throw new IllegalArgumentException("Game not found. Please check the game ID.");
             }
@@ -337,7 +422,6 @@ public class CommandHandler extends ListenerAdapter {
                 return;
             }
 
-            ResponseEntity<Integer> coinsResponse = apiClient.getUserCoins(userId, seasonId);
             Integer userCoinsWrapper = coinsResponse.getBody();
             if (userCoinsWrapper == null) {
                 sendErrorEmbed(event, "Balance Retrieval Failed",
@@ -349,7 +433,8 @@ public class CommandHandler extends ListenerAdapter {
                 throw new IllegalArgumentException("Not enough coins to place bet. You have " + userCoins + " coins.");
             }
 
-            ResponseEntity<Integer> betResponse = apiClient.placeBet(userId, seasonId, gameId, betType, amount);
+            ResponseEntity<Integer> betResponse = userIdCache.invalidateOnNotFound(discordId,
+                    () -> apiClient.placeBet(userId, seasonId, gameId, betType, amount));
             Integer betIdWrapper = betResponse.getBody();
             if (betIdWrapper == null) {
                 sendErrorEmbed(event, "Bet Placement Failed",
@@ -357,6 +442,8 @@ public class CommandHandler extends ListenerAdapter {
                 return;
             }
             int betId = betIdWrapper.intValue();
+            leaderboardEngine.applyDelta(seasonId, userId, -amount);
+            betHistoryCache.invalidate(userId, seasonId);
 
             String awayTeam = (String) gameDetails.get("away_team");
             String homeTeam = (String) gameDetails.get("home_team");
@@ -376,7 +463,16 @@ public class CommandHandler extends ListenerAdapter {
                     .setFooter("Placed by " + username, event.getAuthor().getEffectiveAvatarUrl())
                     .setTimestamp(Instant.now());
 
-            event.getChannel().sendMessageEmbeds(successEmbed.build()).queue();
+            OddsHistory history = oddsTracker.history(gameId);
+            if (history != null && history.size() > 1) {
+                boolean home = betType.equals("HOME");
+                OddsHistory.Quote opening = history.opening();
+                OddsHistory.Quote latest = history.latest();
+                successEmbed.addField("Line Movement", "Opened at " + (home ? opening.home() : opening.away())
+                        + ", last seen at " + (home ? latest.home() : latest.away()), false);
+            }
+
+            reply(event, event.getChannel().sendMessageEmbeds(successEmbed.build()));
         } catch (NumberFormatException e) {
             sendErrorEmbed(event, "Invalid Input",
                     "Please enter valid numbers for season ID, game ID, and amount.",
@@ -386,28 +482,43 @@ public class CommandHandler extends ListenerAdapter {
             sendErrorEmbed(event, "Invalid Input",
                     e.getMessage(),
                     "Valid Bet Types: HOME, AWAY");
+        } catch (TimeoutException e) {
+            commandMetrics.failed(e);
+            sendErrorEmbed(event, "Failed to Place Bet",
+                    "The betting service took too long to respond. Your bet was not placed, please try again.");
         } catch (Exception e) {
+            commandMetrics.failed(e);
             sendErrorEmbed(event, "Failed to Place Bet",
                     "An error occurred while placing the bet. Please try again.",
                     "Error Details: " + e.getMessage());
         }
     }
 
+    private <T> T awaitBefore(CompletableFuture<T> future, long deadlineNanos) throws Exception {
+        long remaining = deadlineNanos - System.nanoTime();
+        try {
+            return future.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
     private void handleMyBets(MessageReceivedEvent event, String[] args) {
-        if (args.length != 2) {
+        if (args.length < 2) {
             sendErrorEmbed(event, "Invalid Command Usage",
-                    "Usage: `!my_bets <season_id>`",
-                    "Example: `!my_bets 123`");
+                    "Usage: `!my_bets <season_id> [pending|won|lost] [week <n>]`",
+                    "Example: `!my_bets 123 pending week 5`");
             return;
         }
 
         try {
             int seasonId = Integer.parseInt(args[1]);
+            BetFilter filter = BetFilter.parse(Arrays.copyOfRange(args, 2, args.length));
             String discordId = event.getAuthor().getId();
             String username = event.getAuthor().getName();
 
-            ResponseEntity<Integer> userResponse = apiClient.createUser(discordId, username);
-            Integer userIdWrapper = userResponse.getBody();
+            Integer userIdWrapper = userIdCache.resolve(discordId, username);
             if (userIdWrapper == null) {
                 sendErrorEmbed(event, "User Creation Failed",
                         "Failed to create or retrieve user. Please try again.");
@@ -415,62 +526,151 @@ public class CommandHandler extends ListenerAdapter {
             }
             int userId = userIdWrapper.intValue();
 
-            ResponseEntity<List<Bet>> betsResponse = apiClient.getUserBets(userId, seasonId);
-            List<Bet> bets = betsResponse.getBody();
-            if (bets == null) {
-                sendErrorEmbed(event, "Bets Retrieval Failed",
-                        "Failed to retrieve your bets. Please try again.");
-                return;
-            }
+            BetHistoryCache.Page page = userIdCache.invalidateOnNotFound(discordId,
+                    () -> betHistoryCache.page(userId, seasonId, filter.result(), filter.week(), 0, BETS_PAGE_SIZE));
 
-            if (bets.isEmpty()) {
+            if (page.totalMatches() == 0) {
                 EmbedBuilder noBetsEmbed = new EmbedBuilder()
                         .setColor(Color.BLUE)
                         .setTitle("No Bets Found")
-                        .setDescription("You haven't placed any bets in this season yet.")
+                        .setDescription(filter.isEmpty()
+                                ? "You haven't placed any bets in this season yet."
+                                : "You have no " + filter.describe() + " in this season.")
                         .setFooter("Season ID: " + seasonId)
                         .setTimestamp(Instant.now());
-                event.getChannel().sendMessageEmbeds(noBetsEmbed.build()).queue();
+                reply(event, event.getChannel().sendMessageEmbeds(noBetsEmbed.build()));
                 return;
             }
 
-            EmbedBuilder betsEmbed = new EmbedBuilder()
-                    .setColor(Color.GREEN)
-                    .setTitle("Your Bets for Season " + seasonId)
-                    .setDescription("Here's a list of your bets for this season:")
-                    .setFooter("Requested by " + username, event.getAuthor().getEffectiveAvatarUrl())
-                    .setTimestamp(Instant.now());
-
-            for (Bet bet : bets) {
-                String betStatus = getBetStatus(bet);
-                String betOnTeam = bet.getBetType().equalsIgnoreCase("HOME") ? bet.getHomeTeam() : bet.getAwayTeam();
-                String betInfo = String.format("%s vs %s\nBet: %d coins on the %s\nResult: %s",
-                        bet.getHomeTeam(), bet.getAwayTeam(),
-                        bet.getAmount(), betOnTeam,
-                        betStatus);
-
-                betsEmbed.addField("Bet ID: " + bet.getId(), betInfo, false);
-            }
-
-            event.getChannel().sendMessageEmbeds(betsEmbed.build()).queue();
+            EmbedBuilder betsEmbed = createBetsEmbed(seasonId, filter, page)
+                    .setFooter("Requested by " + username, event.getAuthor().getEffectiveAvatarUrl());
+            reply(event, event.getChannel().sendMessageEmbeds(betsEmbed.build())
+                    .setActionRow(createBetsButtons(discordId, seasonId, filter, page)));
         } catch (NumberFormatException e) {
             sendErrorEmbed(event, "Invalid Season ID",
                     "Please enter a valid number for the season ID.",
-                    "Correct Usage: `!my_bets <season_id>`",
+                    "Correct Usage: `!my_bets <season_id> [pending|won|lost] [week <n>]`",
                     "Example: `!my_bets 123`");
+        } catch (IllegalArgumentException e) {
+            sendErrorEmbed(event, "Invalid Filter",
+                    e.getMessage(),
+                    "Correct Usage: `!my_bets <season_id> [pending|won|lost] [week <n>]`");
         } catch (Exception e) {
+            commandMetrics.failed(e);
             sendErrorEmbed(event, "Failed to Retrieve Bets",
                     "An error occurred while retrieving your bets. Please try again.",
                     "Error Details: " + e.getMessage());
         }
     }
 
-    private String getBetStatus(Bet bet) {
-        String result = bet.getResult();
-        if (result == null || result.isEmpty()) {
-            return "Pending";
+    private EmbedBuilder createBetsEmbed(int seasonId, BetFilter filter, BetHistoryCache.Page page) {
+        String description = filter.isEmpty()
+                ? "Here's a list of your bets for this season:"
+                : "Here are your " + filter.describe() + " for this season:";
+        if (page.totalPages() > 1) {
+            description += "\nPage " + (page.page() + 1) + " of " + page.totalPages();
+        }
+        EmbedBuilder betsEmbed = new EmbedBuilder()
+                .setColor(Color.GREEN)
+                .setTitle("Your Bets for Season " + seasonId)
+                .setDescription(description)
+                .setTimestamp(Instant.now());
+
+        BetTable table = page.table();
+        for (int row : page.rows()) {
+            String betInfo = String.format("%s vs %s\nBet: %d coins on the %s\nResult: %s",
+                    table.homeTeam(row), table.awayTeam(row),
+                    table.amount(row), table.teamBetOn(row),
+                    getBetStatus(table.result(row)));
+            betsEmbed.addField("Bet ID: " + table.id(row), betInfo, false);
+        }
+        return betsEmbed;
+    }
+
+    /**
+     * The owner, filter and page all travel in the component ID
+     * ({@code bets:<action>:<owner>:<season>:<result>:<week>:<page>}); the bets
+     * themselves come from the bet history cache.
+     */
+    private List<Button> createBetsButtons(String ownerId, int seasonId, BetFilter filter,
+                                           BetHistoryCache.Page page) {
+        String state = ownerId + ":" + seasonId + ":" + filter.encode() + ":" + page.page();
+        Button previousButton = Button.primary("bets:prev:" + state, "Previous")
+                .withDisabled(page.page() == 0);
+        Button nextButton = Button.primary("bets:next:" + state, "Next")
+                .withDisabled(page.page() >= page.totalPages() - 1);
+        return Arrays.asList(previousButton, nextButton);
+    }
+
+    private void onBetsButton(ButtonInteractionEvent event, String[] buttonId) {
+        if (buttonId.length != 7) {
+            event.reply("Invalid button interaction.").setEphemeral(true).queue();
+            return;
+        }
+        String ownerId = buttonId[2];
+        if (!ownerId.equals(event.getUser().getId())) {
+            event.reply("Only the person who ran `!my_bets` can page through these bets.").setEphemeral(true)
+                    .queue();
+            return;
+        }
+        int seasonId;
+        BetFilter filter;
+        int currentPage;
+        try {
+            seasonId = Integer.parseInt(buttonId[3]);
+            filter = BetFilter.decode(buttonId[4], buttonId[5]);
+            currentPage = Integer.parseInt(buttonId[6]);
+        } catch (IllegalArgumentException e) {
+            event.reply("Invalid button interaction.").setEphemeral(true).queue();
+            return;
+        }
+        int newPage = buttonId[1].equals("next") ? currentPage + 1 : Math.max(0, currentPage - 1);
+
+        event.deferEdit().queue();
+        boolean accepted = dispatcher.dispatch("my_bets_page",
+                () -> showBetsPage(event, seasonId, filter, newPage));
+        if (!accepted) {
+            event.getHook().sendMessage("The bot is busy right now, please try again in a moment.").setEphemeral(true)
+                    .queue();
+        }
+    }
+
+    private void showBetsPage(ButtonInteractionEvent event, int seasonId, BetFilter filter, int pageNumber) {
+        String discordId = event.getUser().getId();
+        try {
+            Integer userId = userIdCache.resolve(discordId, event.getUser().getName());
+            if (userId == null) {
+                event.getHook().sendMessage("Failed to load your bets. Please try again.").setEphemeral(true).queue();
+                return;
+            }
+            BetHistoryCache.Page page = userIdCache.invalidateOnNotFound(discordId,
+                    () -> betHistoryCache.page(userId, seasonId, filter.result(), filter.week(), pageNumber,
+                            BETS_PAGE_SIZE));
+            if (page.rows().length == 0) {
+                event.getHook().sendMessage("No more bets to display.").setEphemeral(true).queue();
+                return;
+            }
+            EmbedBuilder betsEmbed = createBetsEmbed(seasonId, filter, page)
+                    .setFooter("Requested by " + event.getUser().getName(), event.getUser().getEffectiveAvatarUrl());
+            outbound.edit(event.getMessageIdLong(), event.getHook()
+                    .editOriginalEmbeds(betsEmbed.build())
+                    .setActionRow(createBetsButtons(discordId, seasonId, filter, page)), this::logError);
+        } catch (Exception e) {
+            commandMetrics.failed(e);
+            logError(e);
+            event.getHook().sendMessage("Failed to load your bets. Please try again.").setEphemeral(true).queue();
+        }
+    }
+
+    private String getBetStatus(BetTable.Result result) {
+        switch (result) {
+            case PENDING:
+                return "Pending";
+            case WON:
+                return "Won";
+            default:
+                return "Lost";
         }
-        return result.equalsIgnoreCase("won") ? "Won" : "Lost";
     }
 
     private void handleBalance(MessageReceivedEvent event, String[] args) {
@@ -486,8 +686,7 @@ public class CommandHandler extends ListenerAdapter {
             String discordId = event.getAuthor().getId();
             String username = event.getAuthor().getName();
 
-            ResponseEntity<Integer> userResponse = apiClient.createUser(discordId, username);
-            Integer userIdWrapper = userResponse.getBody();
+            Integer userIdWrapper = userIdCache.resolve(discordId, username);
             if (userIdWrapper == null) {
                 sendErrorEmbed(event, "User Creation Failed",
                         "Failed to create or retrieve user. Please try again.");
@@ -495,7 +694,8 @@ public class CommandHandler extends ListenerAdapter {
             }
             int userId = userIdWrapper.intValue();
 
-            ResponseEntity<Integer> balanceResponse = apiClient.getUserCoins(userId, seasonId);
+            ResponseEntity<Integer> balanceResponse = userIdCache.invalidateOnNotFound(discordId,
+                    () -> apiClient.getUserCoins(userId, seasonId));
             Integer balanceWrapper = balanceResponse.getBody();
             if (balanceWrapper == null) {
                 sendErrorEmbed(event, "Balance Retrieval Failed",
@@ -539,13 +739,14 @@ public class CommandHandler extends ListenerAdapter {
             String funMessage = getFunBalanceMessage(balance, initialCoins);
             balanceEmbed.addField("Status", funMessage, false);
 
-            event.getChannel().sendMessageEmbeds(balanceEmbed.build()).queue();
+            reply(event, event.getChannel().sendMessageEmbeds(balanceEmbed.build()));
         } catch (NumberFormatException e) {
             sendErrorEmbed(event, "Invalid Season ID",
                     "Please enter a valid number for the season ID.",
                     "Correct Usage: `!balance <season_id>`",
                     "Example: `!balance 123`");
         } catch (Exception e) {
+            commandMetrics.failed(e);
             sendErrorEmbed(event, "Failed to Retrieve Balance",
                     "An error occurred while retrieving your balance. Please try again.",
                     "Error Details: " + e.getMessage());
@@ -577,58 +778,123 @@ public class CommandHandler extends ListenerAdapter {
         try {
             int seasonId = Integer.parseInt(args[1]);
 
-            ResponseEntity<List<User>> leaderboardResponse = apiClient.getUsersBySeason(seasonId);
-            List<User> leaderboard = leaderboardResponse.getBody();
+            // One extra entry says whether there is a second page without counting the season.
+            List<SeasonLeaderboard.Standing> leaders = leaderboardEngine.top(seasonId, LEADERBOARD_PAGE_SIZE + 1);
 
-            if (leaderboard == null || leaderboard.isEmpty()) {
+            if (leaders.isEmpty()) {
                 EmbedBuilder noUsersEmbed = new EmbedBuilder()
                         .setColor(Color.BLUE)
                         .setTitle("No Users Found")
                         .setDescription("There are no users participating in this season yet.")
                         .setFooter("Season ID: " + seasonId)
                         .setTimestamp(Instant.now());
-                event.getChannel().sendMessageEmbeds(noUsersEmbed.build()).queue();
+                reply(event, event.getChannel().sendMessageEmbeds(noUsersEmbed.build()));
                 return;
             }
 
-            leaderboard.sort(Comparator.comparing(User::getCoins).reversed());
-
-            EmbedBuilder leaderboardEmbed = new EmbedBuilder()
-                    .setColor(new Color(218, 165, 32))
-                    .setTitle("Leaderboard for Season " + seasonId)
-                    .setDescription("Here are the top performers for this season:")
-                    .setFooter("Requested by " + event.getAuthor().getName(), event.getAuthor().getEffectiveAvatarUrl())
-                    .setTimestamp(Instant.now());
-
-            for (int i = 0; i < Math.min(10, leaderboard.size()); i++) {
-                User user = leaderboard.get(i);
-                String medal = getMedalEmoji(i);
-                String userInfo = String.format("%s **%s**\nCoins: %d", medal, user.getUsername(), user.getCoins());
-                leaderboardEmbed.addField(String.format("%d.", i + 1), userInfo, false);
-            }
-
-            String requesterId = event.getAuthor().getId();
-            int requesterPosition = findUserPosition(leaderboard, requesterId);
-            if (requesterPosition > 10) {
-                User requesterInfo = leaderboard.get(requesterPosition - 1);
-                String userInfo = String.format("**%s**\nCoins: %d", requesterInfo.getUsername(),
-                        requesterInfo.getCoins());
-                leaderboardEmbed.addField("Your Position: " + requesterPosition, userInfo, false);
-            }
+            boolean morePages = leaders.size() > LEADERBOARD_PAGE_SIZE;
+            SeasonLeaderboard.Standing requester = leaderboardEngine.standingOf(seasonId, event.getAuthor().getId());
+            EmbedBuilder leaderboardEmbed = createLeaderboardEmbed(seasonId,
+                    "Here are the top performers for this season:",
+                    morePages ? leaders.subList(0, LEADERBOARD_PAGE_SIZE) : leaders, requester)
+                    .setFooter("Requested by " + event.getAuthor().getName(), event.getAuthor().getEffectiveAvatarUrl());
 
-            event.getChannel().sendMessageEmbeds(leaderboardEmbed.build()).queue();
+            reply(event, event.getChannel().sendMessageEmbeds(leaderboardEmbed.build())
+                    .setActionRow(createLeaderboardButtons(seasonId, 0, morePages)));
         } catch (NumberFormatException e) {
             sendErrorEmbed(event, "Invalid Season ID",
                     "Please enter a valid number for the season ID.",
                     "Correct Usage: `!leaderboard <season_id>`",
                     "Example: `!leaderboard 123`");
         } catch (Exception e) {
+            commandMetrics.failed(e);
             sendErrorEmbed(event, "Failed to Retrieve Leaderboard",
                     "An error occurred while retrieving the leaderboard. Please try again.",
                     "Error Details: " + e.getMessage());
         }
     }
 
+    private EmbedBuilder createLeaderboardEmbed(int seasonId, String description,
+                                                List<SeasonLeaderboard.Standing> entries,
+                                                SeasonLeaderboard.Standing requester) {
+        EmbedBuilder leaderboardEmbed = new EmbedBuilder()
+                .setColor(new Color(218, 165, 32))
+                .setTitle("Leaderboard for Season " + seasonId)
+                .setDescription(description)
+                .setTimestamp(Instant.now());
+
+        for (SeasonLeaderboard.Standing standing : entries) {
+            String medal = getMedalEmoji(standing.rank() - 1);
+            String userInfo = String.format("%s **%s**\nCoins: %d", medal, standing.username(), standing.coins());
+            leaderboardEmbed.addField(String.format("%d.", standing.rank()), userInfo, false);
+        }
+
+        int lastRankShown = entries.isEmpty() ? 0 : entries.get(entries.size() - 1).rank();
+        if (requester != null && requester.rank() > lastRankShown) {
+            String userInfo = String.format("**%s**\nCoins: %d", requester.username(), requester.coins());
+            leaderboardEmbed.addField("Your Position: " + requester.rank(), userInfo, false);
+        }
+        return leaderboardEmbed;
+    }
+
+    /**
+     * Like the game list, the page being shown is carried in the component ID
+     * ({@code lb:<action>:<season>:<page>}) and only that page is fetched again.
+     */
+    private List<Button> createLeaderboardButtons(int seasonId, int page, boolean morePages) {
+        String state = seasonId + ":" + page;
+        Button previousButton = Button.primary("lb:prev:" + state, "Previous")
+                .withDisabled(page == 0);
+        Button nextButton = Button.primary("lb:next:" + state, "Next")
+                .withDisabled(!morePages);
+        return Arrays.asList(previousButton, nextButton);
+    }
+
+    private void onLeaderboardButton(ButtonInteractionEvent event, String[] buttonId) {
+        int seasonId;
+        int currentPage;
+        try {
+            seasonId = Integer.parseInt(buttonId[2]);
+            currentPage = Integer.parseInt(buttonId[3]);
+        } catch (NumberFormatException e) {
+            event.reply("Invalid button interaction.").setEphemeral(true).queue();
+            return;
+        }
+        int newPage = buttonId[1].equals("next") ? currentPage + 1 : Math.max(0, currentPage - 1);
+
+        event.deferEdit().queue();
+        boolean accepted = dispatcher.dispatch("leaderboard_page",
+                () -> showLeaderboardPage(event, seasonId, newPage));
+        if (!accepted) {
+            event.getHook().sendMessage("The bot is busy right now, please try again in a moment.").setEphemeral(true)
+                    .queue();
+        }
+    }
+
+    private void showLeaderboardPage(ButtonInteractionEvent event, int seasonId, int pageNumber) {
+        try {
+            LeaderboardPage page = leaderboardEngine.page(seasonId, pageNumber, LEADERBOARD_PAGE_SIZE);
+            if (page.getEntries() == null || page.getEntries().isEmpty()) {
+                event.getHook().sendMessage("No more players to display.").setEphemeral(true).queue();
+                return;
+            }
+            SeasonLeaderboard.Standing viewer = leaderboardEngine.standingOf(seasonId, event.getUser().getId());
+            String description = page.getPage() == 0
+                    ? "Here are the top performers for this season:"
+                    : "Page " + (page.getPage() + 1) + " of " + page.totalPages();
+            EmbedBuilder leaderboardEmbed = createLeaderboardEmbed(seasonId, description, page.getEntries(), viewer)
+                    .setFooter("Viewed by " + event.getUser().getName(), event.getUser().getEffectiveAvatarUrl());
+            outbound.edit(event.getMessageIdLong(), event.getHook()
+                    .editOriginalEmbeds(leaderboardEmbed.build())
+                    .setActionRow(createLeaderboardButtons(seasonId, page.getPage(),
+                            page.getPage() < page.totalPages() - 1)), this::logError);
+        } catch (Exception e) {
+            commandMetrics.failed(e);
+            logError(e);
+            event.getHook().sendMessage("Failed to load the leaderboard. Please try again.").setEphemeral(true).queue();
+        }
+    }
+
     private String getMedalEmoji(int position) {
         switch (position) {
             case 0:
@@ -642,16 +908,6 @@ public class CommandHandler extends ListenerAdapter {
         }
     }
 
-    private int findUserPosition(List<User> leaderboard, String discordId) {
-        for (int i = 0; i < leaderboard.size(); i++) {
-            String userDiscordId = leaderboard.get(i).getDiscordId();
-            if (userDiscordId != null && userDiscordId.equals(discordId)) {
-                return i + 1;
-            }
-        }
-        return leaderboard.size() + 1;
-    }
-
     private void handleSeasonInfo(MessageReceivedEvent event, String[] args) {
         if (args.length != 2) {
             sendErrorEmbed(event, "Invalid Command Usage",
@@ -672,7 +928,7 @@ public class CommandHandler extends ListenerAdapter {
                         .setTitle("Season Not Found")
                         .setDescription("No season found with ID: " + seasonId)
                         .setTimestamp(Instant.now());
-                event.getChannel().sendMessageEmbeds(noSeasonEmbed.build()).queue();
+                reply(event, event.getChannel().sendMessageEmbeds(noSeasonEmbed.build()));
                 return;
             }
 
@@ -685,7 +941,7 @@ public class CommandHandler extends ListenerAdapter {
             int endWeek = (Integer) season.get("end_week");
             int durationWeeks = endWeek - startWeek + 1;
 
-            int currentWeek = getCurrentNflWeek();
+            int currentWeek = seasonCalendar.currentWeek();
 
             String seasonStatus = getSeasonStatus(startWeek, endWeek, currentWeek);
 
@@ -707,13 +963,14 @@ public class CommandHandler extends ListenerAdapter {
                 seasonInfoEmbed.addField("Progress", getProgressBar(progress) + " " + progress + "%", false);
             }
 
-            event.getChannel().sendMessageEmbeds(seasonInfoEmbed.build()).queue();
+            reply(event, event.getChannel().sendMessageEmbeds(seasonInfoEmbed.build()));
         } catch (NumberFormatException e) {
             sendErrorEmbed(event, "Invalid Season ID",
                     "Please enter a valid number for the season ID.",
                     "Correct Usage: `!season_info <season_id>`",
                     "Example: `!season_info 123`");
         } catch (Exception e) {
+            commandMetrics.failed(e);
             sendErrorEmbed(event, "Failed to Retrieve Season Information",
                     "An error occurred while retrieving season information. Please try again.",
                     "Error Details: " + e.getMessage());
@@ -752,7 +1009,7 @@ public class CommandHandler extends ListenerAdapter {
                         .setFooter("Requested by " + event.getAuthor().getName(),
                                 event.getAuthor().getEffectiveAvatarUrl())
                         .setTimestamp(Instant.now());
-                event.getChannel().sendMessageEmbeds(noSeasonsEmbed.build()).queue();
+                reply(event, event.getChannel().sendMessageEmbeds(noSeasonsEmbed.build()));
                 return;
             }
 
@@ -784,19 +1041,19 @@ public class CommandHandler extends ListenerAdapter {
                 activeSeasonsEmbed.addField("Season " + seasonId, seasonInfo, false);
             }
 
-            event.getChannel().sendMessageEmbeds(activeSeasonsEmbed.build()).queue();
+            reply(event, event.getChannel().sendMessageEmbeds(activeSeasonsEmbed.build()));
         } catch (Exception e) {
+            commandMetrics.failed(e);
             sendErrorEmbed(event, "Failed to Retrieve Active Seasons",
                     "An error occurred while retrieving active seasons. Please try again.",
                     "Error Details: " + e.getMessage());
-            e.printStackTrace();
+            logger.warn("Failed to list active seasons", e);
         }
     }
 
     private void handleNflWeeks(MessageReceivedEvent event) {
         try {
-            ResponseEntity<List<Integer>> weeksResponse = apiClient.getNflWeeks();
-            List<Integer> weeks = weeksResponse.getBody();
+            List<Integer> weeks = scheduleCache.getNflWeeks();
 
             if (weeks == null || weeks.isEmpty()) {
                 EmbedBuilder noWeeksEmbed = new EmbedBuilder()
@@ -806,11 +1063,11 @@ public class CommandHandler extends ListenerAdapter {
                         .setFooter("Requested by " + event.getAuthor().getName(),
                                 event.getAuthor().getEffectiveAvatarUrl())
                         .setTimestamp(Instant.now());
-                event.getChannel().sendMessageEmbeds(noWeeksEmbed.build()).queue();
+                reply(event, event.getChannel().sendMessageEmbeds(noWeeksEmbed.build()));
                 return;
             }
 
-            int currentWeek = getCurrentNflWeek();
+            int currentWeek = seasonCalendar.currentWeek();
 
             EmbedBuilder nflWeeksEmbed = new EmbedBuilder()
                     .setColor(NFL_BLUE)
@@ -831,8 +1088,9 @@ public class CommandHandler extends ListenerAdapter {
             nflWeeksEmbed.addField("First Week", String.valueOf(weeks.get(0)), true);
             nflWeeksEmbed.addField("Last Week", String.valueOf(weeks.get(weeks.size() - 1)), true);
 
-            event.getChannel().sendMessageEmbeds(nflWeeksEmbed.build()).queue();
+            reply(event, event.getChannel().sendMessageEmbeds(nflWeeksEmbed.build()));
         } catch (Exception e) {
+            commandMetrics.failed(e);
             sendErrorEmbed(event, "Failed to Retrieve NFL Weeks",
                     "An error occurred while retrieving NFL weeks. Please try again.",
                     "Error Details: " + e.getMessage());
@@ -868,10 +1126,9 @@ public class CommandHandler extends ListenerAdapter {
         try {
             int week = Integer.parseInt(args[1]);
 
-            ResponseEntity<List<Game>> gamesResponse = apiClient.getNflGamesByWeek(week);
-            List<Game> allGames = gamesResponse.getBody();
+            List<Game> weekGames = seasonCalendar.gamesForWeek(week);
 
-            if (allGames == null || allGames.isEmpty()) {
+            if (weekGames.isEmpty()) {
                 EmbedBuilder noGamesEmbed = new EmbedBuilder()
                         .setColor(Color.ORANGE)
                         .setTitle("No NFL Games Available")
@@ -879,40 +1136,24 @@ public class CommandHandler extends ListenerAdapter {
                         .setFooter("Requested by " + event.getAuthor().getName(),
                                 event.getAuthor().getEffectiveAvatarUrl())
                         .setTimestamp(Instant.now());
-                event.getChannel().sendMessageEmbeds(noGamesEmbed.build()).queue();
-                return;
-            }
-
-            // Filter games for the requested week
-            List<Game> weekGames = allGames.stream()
-                    .filter(game -> getWeekNumber(game.getCommenceTime()) == week)
-                    .collect(Collectors.toList());
-
-            if (weekGames.isEmpty()) {
-                sendErrorEmbed(event, "No Games Found",
-                        "No games found for Week " + week + ".",
-                        "Please try a different week number.");
+                reply(event, event.getChannel().sendMessageEmbeds(noGamesEmbed.build()));
                 return;
             }
 
-            String messageId = UUID.randomUUID().toString();
+            String weekArg = String.valueOf(week);
             Game firstGame = weekGames.get(0);
 
             EmbedBuilder initialEmbed = createGameEmbed(firstGame, week, 1, weekGames.size());
-            List<Button> buttons = createNavigationButtons(messageId, 0, weekGames.size());
+            List<Button> buttons = createNavigationButtons(VIEW_WEEK, weekArg, 0, weekGames.size());
 
             String awayTeam = firstGame.getAwayTeam();
             String homeTeam = firstGame.getHomeTeam();
 
             try {
-                File logoImage = createLogoImage(awayTeam, homeTeam);
-                event.getChannel().sendMessageEmbeds(initialEmbed.build())
+                byte[] logoImage = imageRenderer.render(awayTeam, homeTeam);
+                reply(event, event.getChannel().sendMessageEmbeds(initialEmbed.build())
                         .setActionRow(buttons)
-                        .addFiles(FileUpload.fromData(logoImage, "game_logos.png"))
-                        .queue(message -> {
-                            logoImage.delete();
-                            activeGamesCache.put(messageId, weekGames);
-                        });
+                        .addFiles(FileUpload.fromData(logoImage, "game_logos.png")));
             } catch (IOException e) {
                 sendErrorEmbed(event, "Logo Generation Failed",
                         "Failed to generate team logos.",
@@ -925,6 +1166,7 @@ public class CommandHandler extends ListenerAdapter {
                     "Correct Usage: `!nfl_games <week>`",
                     "Example: `!nfl_games 1`");
         } catch (Exception e) {
+            commandMetrics.failed(e);
             sendErrorEmbed(event, "Failed to Retrieve NFL Games",
                     "An error occurred while retrieving NFL games. Please try again.",
                     "Error Details: " + e.getMessage());
@@ -936,8 +1178,8 @@ public class CommandHandler extends ListenerAdapter {
                 .setColor(NFL_BLUE)
                 .setTitle("Week " + week + " - Game " + currentGame + " of " + totalGames)
                 .setDescription(game.getAwayTeam() + " @ " + game.getHomeTeam() + "\n\n" +
-                        game.getAwayTeam() + " Odds: " + game.getAwayOdds() + "  |  " +
-                        game.getHomeTeam() + " Odds: " + game.getHomeOdds())
+                        game.getAwayTeam() + " Odds: " + formatOdds(game, false) + "  |  " +
+                        game.getHomeTeam() + " Odds: " + formatOdds(game, true))
                 .setImage("attachment://game_logos.png");
 
         if (game.getCommenceTime() != null) {
@@ -954,51 +1196,160 @@ public class CommandHandler extends ListenerAdapter {
         return gameEmbed;
     }
 
-    private List<Button> createNavigationButtons(String messageId, int currentIndex, int totalGames) {
-        Button previousButton = Button.primary("nfl:prev:" + messageId, "Previous")
+    /**
+     * Shows the latest polled line rather than the one in the cached game, and
+     * where it opened if it has moved since.
+     */
+    private String formatOdds(Game game, boolean home) {
+        OddsHistory.Quote current = oddsTracker.currentOdds(game);
+        double odds = home ? current.home() : current.away();
+        OddsHistory history = oddsTracker.history(game.getId());
+        if (history == null) {
+            return String.valueOf(odds);
+        }
+        double opening = home ? history.opening().home() : history.opening().away();
+        return opening == odds ? String.valueOf(odds) : odds + " (opened " + opening + ")";
+    }
+
+    /**
+     * Pagination state lives entirely in the component ID
+     * ({@code nfl:<action>:<view>:<arg>:<index>}), so any instance can serve a
+     * click; the game list is read back from the season calendar's index. The
+     * team view's argument is the {@link NflTeams} ID, which keeps the ID short
+     * and free of separators whatever the user typed.
+     */
+    private List<Button> createNavigationButtons(String view, String viewArg, int currentIndex, int totalGames) {
+        String state = view + ":" + viewArg + ":" + currentIndex;
+        Button previousButton = Button.primary("nfl:prev:" + state, "Previous")
                 .withDisabled(currentIndex == 0);
-        Button nextButton = Button.primary("nfl:next:" + messageId, "Next")
+        Button nextButton = Button.primary("nfl:next:" + state, "Next")
                 .withDisabled(currentIndex == totalGames - 1);
         return Arrays.asList(previousButton, nextButton);
     }
 
+    private List<Game> loadViewGames(String view, String viewArg) {
+        if (view.equals(VIEW_TEAM)) {
+            return loadTeamGames(teamName(viewArg));
+        }
+        return seasonCalendar.gamesForWeek(Integer.parseInt(viewArg));
+    }
+
+    /**
+     * @param teamName a canonical {@link NflTeams} name
+     */
+    private List<Game> loadTeamGames(String teamName) {
+        List<Game> games = seasonCalendar.gamesForTeam(teamName);
+        if (!games.isEmpty()) {
+            return games;
+        }
+        // Weeks the calendar hasn't cached yet; the backend has the full schedule.
+        return Optional.ofNullable(scheduleCache.getTeamSchedule(teamName)).orElse(List.of());
+    }
+
+    /**
+     * @return the team named by a button's view argument
+     * @throws NumberFormatException if the argument is not a team ID
+     */
+    private static String teamName(String viewArg) {
+        int id = Integer.parseInt(viewArg);
+        if (id < 0 || id >= NflTeams.COUNT) {
+            throw new NumberFormatException("Not a team ID: " + viewArg);
+        }
+        return NflTeams.name((byte) id);
+    }
+
     @Override
     public void onButtonInteraction(ButtonInteractionEvent event) {
-        String[] buttonId = event.getComponentId().split(":");
-        if (buttonId.length != 3 || !buttonId[0].equals("nfl")) {
+        CorrelationId.set(event.getId());
+        try {
+            routeButton(event);
+        } finally {
+            CorrelationId.clear();
+        }
+    }
+
+    private void routeButton(ButtonInteractionEvent event) {
+        String componentId = event.getComponentId();
+        String command = componentId.startsWith("bets:") ? "my_bets_page"
+                : componentId.startsWith("lb:") ? "leaderboard_page" : "nfl_page";
+        long guildId = event.isFromGuild() ? event.getGuild().getIdLong() : 0;
+        CommandRateLimiter.Throttle throttle = rateLimiter.tryAcquire(event.getUser().getIdLong(), guildId, command);
+        if (throttle != null) {
+            if (throttle.warn()) {
+                event.reply(slowDownMessage(throttle)).setEphemeral(true).queue();
+            } else {
+                event.deferEdit().queue();
+            }
+            return;
+        }
+
+        if (event.getComponentId().startsWith("bets:")) {
+            onBetsButton(event, event.getComponentId().split(":"));
+            return;
+        }
+        String[] buttonId = event.getComponentId().split(":", 5);
+        if (buttonId.length == 4 && buttonId[0].equals("lb")) {
+            onLeaderboardButton(event, buttonId);
+            return;
+        }
+        if (buttonId.length == 3 && buttonId[0].equals("nfl")) {
+            // Buttons created before pagination state moved into the component ID.
+            event.reply("This game list has expired. Please request a new one.").setEphemeral(true).queue();
+            return;
+        }
+        if (buttonId.length != 5 || !buttonId[0].equals("nfl")
+                || !(buttonId[2].equals(VIEW_WEEK) || buttonId[2].equals(VIEW_TEAM))) {
             event.reply("Invalid button interaction.").setEphemeral(true).queue();
             return;
         }
 
         String action = buttonId[1];
-        String messageId = buttonId[2];
-
-        List<Game> games = activeGamesCache.get(messageId);
-        if (games == null) {
-            event.reply("This game list has expired. Please request a new one.").setEphemeral(true).queue();
+        String view = buttonId[2];
+        String viewArg = buttonId[3];
+        int currentIndex;
+        int week;
+        try {
+            currentIndex = Integer.parseInt(buttonId[4]);
+            week = view.equals(VIEW_WEEK) ? Integer.parseInt(viewArg) : 0;
+            if (view.equals(VIEW_TEAM)) {
+                teamName(viewArg);
+            }
+        } catch (NumberFormatException e) {
+            event.reply("Invalid button interaction.").setEphemeral(true).queue();
             return;
         }
 
-        MessageEmbed currentEmbed = event.getMessage().getEmbeds().get(0);
-        String title = currentEmbed.getTitle();
+        event.deferEdit().queue();
+        boolean accepted = dispatcher.dispatch("nfl_page",
+                () -> showGamePage(event, action, view, viewArg, week, currentIndex));
+        if (!accepted) {
+            event.getHook().sendMessage("The bot is busy right now, please try again in a moment.").setEphemeral(true)
+                    .queue();
+        }
+    }
 
-        int currentIndex;
-        int week = 0;
+    private void showGamePage(ButtonInteractionEvent event, String action, String view, String viewArg, int week,
+                              int currentIndex) {
+        List<Game> games;
+        try {
+            games = loadViewGames(view, viewArg);
+        } catch (Exception e) {
+            commandMetrics.failed(e);
+            logError(e);
+            event.getHook().sendMessage("Failed to load the game list. Please try again.").setEphemeral(true).queue();
+            return;
+        }
 
-        if (title.contains("Schedule")) {
-            String[] titleParts = title.split(" - ");
-            String[] gameParts = titleParts[1].split(" ");
-            currentIndex = Integer.parseInt(gameParts[1]) - 1;
-        } else {
-            String[] titleParts = title.split(" - ");
-            week = Integer.parseInt(titleParts[0].split(" ")[1]);
-            currentIndex = Integer.parseInt(titleParts[1].split(" ")[1]) - 1;
+        if (games.isEmpty()) {
+            event.getHook().sendMessage("This game list is no longer available. Please request a new one.")
+                    .setEphemeral(true).queue();
+            return;
         }
 
         int newIndex = action.equals("next") ? currentIndex + 1 : currentIndex - 1;
 
         if (newIndex < 0 || newIndex >= games.size()) {
-            event.reply("No more games to display.").setEphemeral(true).queue();
+            event.getHook().sendMessage("No more games to display.").setEphemeral(true).queue();
             return;
         }
 
@@ -1007,30 +1358,28 @@ public class CommandHandler extends ListenerAdapter {
         String homeTeam = game.getHomeTeam();
 
         EmbedBuilder updatedEmbed;
-        if (title.contains("Schedule")) {
-            updatedEmbed = createTeamScheduleEmbed(game, title.split(" Schedule")[0], newIndex + 1, games.size());
+        if (view.equals(VIEW_TEAM)) {
+            updatedEmbed = createTeamScheduleEmbed(game, teamName(viewArg), newIndex + 1, games.size());
         } else {
             updatedEmbed = createGameEmbed(game, week, newIndex + 1, games.size());
         }
 
-        List<Button> updatedButtons = createNavigationButtons(messageId, newIndex, games.size());
+        List<Button> updatedButtons = createNavigationButtons(view, viewArg, newIndex, games.size());
 
         try {
-            File logoImage = createLogoImage(awayTeam, homeTeam);
-            event.deferEdit().queue();
-            event.getHook().editOriginalEmbeds(updatedEmbed.build())
+            byte[] logoImage = imageRenderer.render(awayTeam, homeTeam);
+            outbound.edit(event.getMessageIdLong(), event.getHook()
+                    .editOriginalEmbeds(updatedEmbed.build())
                     .setActionRow(updatedButtons)
-                    .setFiles(FileUpload.fromData(logoImage, "game_logos.png"))
-                    .queue(
-                            success -> logoImage.delete(),
-                            error -> {
-                                logError(error);
-                                event.getHook().sendMessage("An error occurred. Please try again.").setEphemeral(true)
-                                        .queue();
-                                logoImage.delete();
-                            });
+                    .setFiles(FileUpload.fromData(logoImage, "game_logos.png")),
+                    error -> {
+                        logError(error);
+                        event.getHook().sendMessage("An error occurred. Please try again.").setEphemeral(true)
+                                .queue();
+                    });
         } catch (IOException e) {
-            event.reply("An error occurred while processing team logos. Please try again.").setEphemeral(true).queue();
+            event.getHook().sendMessage("An error occurred while processing team logos. Please try again.")
+                    .setEphemeral(true).queue();
         }
     }
 
@@ -1042,13 +1391,20 @@ public class CommandHandler extends ListenerAdapter {
             return;
         }
 
-        String teamName = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+        String requested = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+        byte teamId = NflTeams.find(requested);
+        if (teamId == NflTeams.UNKNOWN) {
+            sendErrorEmbed(event, "Unknown Team",
+                    "No NFL team matches \"" + requested + "\".",
+                    "Use the full name or the nickname, e.g. `San Francisco 49ers` or `49ers`.");
+            return;
+        }
+        String teamName = NflTeams.name(teamId);
 
         try {
-            ResponseEntity<List<Game>> scheduleResponse = apiClient.getTeamSchedule(teamName);
-            List<Game> schedule = scheduleResponse.getBody();
+            List<Game> schedule = loadTeamGames(teamName);
 
-            if (schedule == null || schedule.isEmpty()) {
+            if (schedule.isEmpty()) {
                 EmbedBuilder noScheduleEmbed = new EmbedBuilder()
                         .setColor(Color.ORANGE)
                         .setTitle("No Schedule Available")
@@ -1056,29 +1412,25 @@ public class CommandHandler extends ListenerAdapter {
                         .setFooter("Requested by " + event.getAuthor().getName(),
                                 event.getAuthor().getEffectiveAvatarUrl())
                         .setTimestamp(Instant.now());
-                event.getChannel().sendMessageEmbeds(noScheduleEmbed.build()).queue();
+                reply(event, event.getChannel().sendMessageEmbeds(noScheduleEmbed.build()));
                 return;
             }
 
-            String messageId = UUID.randomUUID().toString();
             Game firstGame = schedule.get(0);
 
             EmbedBuilder initialEmbed = createTeamScheduleEmbed(firstGame, teamName, 1, schedule.size());
-            List<Button> buttons = createNavigationButtons(messageId, 0, schedule.size());
+            List<Button> buttons = createNavigationButtons(VIEW_TEAM, String.valueOf(teamId), 0, schedule.size());
 
             String awayTeam = firstGame.getAwayTeam();
             String homeTeam = firstGame.getHomeTeam();
-            File logoImage = createLogoImage(awayTeam, homeTeam);
+            byte[] logoImage = imageRenderer.render(awayTeam, homeTeam);
 
-            event.getChannel().sendMessageEmbeds(initialEmbed.build())
+            reply(event, event.getChannel().sendMessageEmbeds(initialEmbed.build())
                     .setActionRow(buttons)
-                    .addFiles(FileUpload.fromData(logoImage, "game_logos.png"))
-                    .queue(message -> {
-                        logoImage.delete();
-                        activeGamesCache.put(messageId, schedule);
-                    });
+                    .addFiles(FileUpload.fromData(logoImage, "game_logos.png")));
 
         } catch (Exception e) {
+            commandMetrics.failed(e);
             sendErrorEmbed(event, "Failed to Retrieve Team Schedule",
                     "An error occurred while retrieving the schedule for " + teamName + ". Please try again.",
                     "Error Details: " + e.getMessage());
@@ -1090,7 +1442,7 @@ public class CommandHandler extends ListenerAdapter {
                 .setColor(NFL_BLUE)
                 .setTitle(teamName + " Schedule - Game " + currentGame + " of " + totalGames)
                 .setDescription(game.getAwayTeam() + " @ " + game.getHomeTeam() + "\n\n" +
-                        "Away Odds: " + game.getAwayOdds() + "  |  Home Odds: " + game.getHomeOdds())
+                        "Away Odds: " + formatOdds(game, false) + "  |  Home Odds: " + formatOdds(game, true))
                 .setImage("attachment://game_logos.png");
 
         if (game.getCommenceTime() != null) {
@@ -1102,74 +1454,13 @@ public class CommandHandler extends ListenerAdapter {
             gameEmbed.addField("Date & Time", "Not available", false);
         }
 
-        int weekNumber = getWeekNumber(game.getCommenceTime());
+        int weekNumber = seasonCalendar.weekOf(game.getCommenceTime());
         gameEmbed.addField("Week", String.valueOf(weekNumber), true);
         gameEmbed.addField("Game ID", String.valueOf(game.getId()), true);
 
         return gameEmbed;
     }
 
-    private int getWeekNumber(Instant gameTime) {
-        if (gameTime == null) {
-            return 0;
-        }
-        LocalDate gameDate = gameTime.atZone(ZoneId.of("America/New_York")).toLocalDate();
-        LocalDate seasonStartDate = LocalDate.of(2024, Month.SEPTEMBER, 5);
-        if (gameDate.getYear() > seasonStartDate.getYear()) {
-            // Handle games in the following year (e.g., Week 18)
-            return (int) (ChronoUnit.WEEKS.between(seasonStartDate, gameDate.withYear(seasonStartDate.getYear())) + 1);
-        }
-        long weeksSinceStart = ChronoUnit.WEEKS.between(seasonStartDate, gameDate);
-        return (int) weeksSinceStart + 1;
-    }
-
-    private File createLogoImage(String awayTeam, String homeTeam) throws IOException {
-        String[] possiblePaths = {
-                System.getenv("LOGO_PATH"),
-                "/app/logos",
-                "src/main/resources/static/logos",
-                "logos"
-        };
-
-        String logoPath = null;
-        for (String path : possiblePaths) {
-            if (path != null && new File(path).exists()) {
-                logoPath = path;
-                break;
-            }
-        }
-
-        if (logoPath == null) {
-            throw new FileNotFoundException("Could not find logos directory");
-        }
-
-        BufferedImage awayLogo = ImageIO.read(new File(logoPath, getTeamLogoFilename(awayTeam)));
-        BufferedImage homeLogo = ImageIO.read(new File(logoPath, getTeamLogoFilename(homeTeam)));
-
-        int width = awayLogo.getWidth() + homeLogo.getWidth() + 100;
-        int height = Math.max(awayLogo.getHeight(), homeLogo.getHeight()) + 60;
-
-        BufferedImage combined = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        Graphics g = combined.getGraphics();
-
-        g.setFont(new Font("Arial", Font.BOLD, 20));
-        g.drawString(awayTeam, 10, 25);
-        g.drawString(homeTeam, awayLogo.getWidth() + 110, 25);
-
-        g.drawImage(awayLogo, 0, 30, null);
-        g.drawImage(homeLogo, awayLogo.getWidth() + 100, 30, null);
-
-        g.dispose();
-
-        File tempFile = File.createTempFile("game_logos", ".png");
-        ImageIO.write(combined, "PNG", tempFile);
-        return tempFile;
-    }
-
-    private String getTeamLogoFilename(String teamName) {
-        return teamName.replaceAll("[^a-zA-Z0-9]", "") + ".png";
-    }
-
     private void handleHelp(MessageReceivedEvent event) {
         EmbedBuilder helpEmbed = new EmbedBuilder()
                 .setColor(DISCORD_BLURPLE)
@@ -1187,7 +1478,7 @@ public class CommandHandler extends ListenerAdapter {
 
         helpEmbed.addField("💰 Betting",
                 "`!bet <season_id> <game_id> <bet_type> <amount>` - Place a bet\n" +
-                        "`!my_bets <season_id>` - View your bets for a season\n" +
+                        "`!my_bets <season_id> [pending|won|lost] [week <n>]` - View your bets for a season\n" +
                         "`!balance <season_id>` - Check your balance for a season",
                 false);
 
@@ -1223,12 +1514,12 @@ public class CommandHandler extends ListenerAdapter {
                         "The bot will provide you with more detailed usage instructions.",
                 false);
 
-        event.getChannel().sendMessageEmbeds(helpEmbed.build()).queue();
+        reply(event, event.getChannel().sendMessageEmbeds(helpEmbed.build()));
     }
 
     private void handlePurge(MessageReceivedEvent event, String[] args) {
         if (!event.getMember().hasPermission(Permission.MESSAGE_MANAGE)) {
-            event.getChannel().sendMessage("You do not have permission to use this command.").queue();
+            reply(event, event.getChannel().sendMessage("You do not have permission to use this command."));
             return;
         }
 
@@ -1243,8 +1534,8 @@ public class CommandHandler extends ListenerAdapter {
         try {
             int amount = Integer.parseInt(args[1]);
             if (amount < 1 || amount > MAX_MESSAGES_TO_DELETE) {
-                event.getChannel().sendMessage("Please provide a number between 1 and " + MAX_MESSAGES_TO_DELETE + ".")
-                        .queue();
+                reply(event, event.getChannel()
+                        .sendMessage("Please provide a number between 1 and " + MAX_MESSAGES_TO_DELETE + "."));
                 return;
             }
 
@@ -1260,42 +1551,34 @@ public class CommandHandler extends ListenerAdapter {
                     .setFooter("Requested by " + event.getAuthor().getName(),
                             event.getAuthor().getEffectiveAvatarUrl());
 
-            channel.sendMessageEmbeds(successEmbed.build())
-                    .queue(response -> response.delete().queueAfter(5, TimeUnit.SECONDS));
+            outbound.reply(channel, channel.sendMessageEmbeds(successEmbed.build()),
+                    response -> response.delete().queueAfter(5, TimeUnit.SECONDS));
 
         } catch (NumberFormatException e) {
-            event.getChannel().sendMessage("Please provide a valid number.").queue();
+            reply(event, event.getChannel().sendMessage("Please provide a valid number."));
         } catch (InsufficientPermissionException e) {
-            event.getChannel().sendMessage("I don't have permission to delete messages in this channel.").queue();
+            reply(event, event.getChannel().sendMessage("I don't have permission to delete messages in this channel."));
         } catch (IllegalArgumentException e) {
-            event.getChannel().sendMessage(
-                    "Some messages are too old to be deleted. I can only bulk delete messages that are under 2 weeks old.")
-                    .queue();
+            reply(event, event.getChannel().sendMessage(
+                    "Some messages are too old to be deleted. I can only bulk delete messages that are under 2 weeks old."));
         }
     }
 
-    private int getCurrentNflWeek() {
-        LocalDate seasonStartDate = LocalDate.of(2024, Month.SEPTEMBER, 5);
-        LocalDate currentDate = LocalDate.now();
-
-        if (currentDate.isBefore(seasonStartDate)) {
-            return 0;
+    private String slowDownMessage(CommandRateLimiter.Throttle throttle) {
+        long seconds = Math.max(1, (throttle.retryAfterMillis() + 999) / 1000);
+        if (throttle.scope() == CommandRateLimiter.Scope.GUILD) {
+            return "This server is sending commands too quickly. Please try again in " + seconds + "s.";
         }
-
-        long weeksSinceStart = ChronoUnit.WEEKS.between(seasonStartDate, currentDate);
-        int currentWeek = (int) weeksSinceStart + 1;
-
-        return Math.min(currentWeek, 18);
+        return "Slow down! You can use commands again in " + seconds + "s.";
     }
 
     private void logError(Throwable error) {
         if (error instanceof ErrorResponseException) {
             ErrorResponseException ere = (ErrorResponseException) error;
-            System.out.println("Error response: " + ere.getErrorCode() + " " + ere.getMeaning());
+            logger.warn("Discord error response: {} {}", ere.getErrorCode(), ere.getMeaning(), error);
         } else {
-            System.out.println("An error occurred: " + error.getMessage());
+            logger.warn("An error occurred: {}", error.getMessage(), error);
         }
-        error.printStackTrace();
     }
 
     private String formatTimeUntilNextGame(long days) {
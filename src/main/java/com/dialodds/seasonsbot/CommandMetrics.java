@@ -0,0 +1,108 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Times every command run by the {@link CommandDispatcher} as
+ * {@code seasonsbot.commands} tagged with the command, its outcome and, for
+ * failures, the exception type. Handlers report errors they catch themselves
+ * through {@link #failed(Throwable)} and {@link #invalidInput()}, which apply
+ * to the command running on the calling thread.
+ */
+@Component
+public class CommandMetrics {
+
+    private static final String SUCCESS = "success";
+    private static final String INVALID_INPUT = "invalid_input";
+    private static final String ERROR = "error";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, AtomicInteger> active = new ConcurrentHashMap<>();
+    private final ThreadLocal<Invocation> current = new ThreadLocal<>();
+
+    public CommandMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Marks the start of a command on the calling thread. The returned
+     * invocation must be stopped on the same thread.
+     */
+    Invocation start(String command) {
+        AtomicInteger inFlight = active.computeIfAbsent(command, key -> {
+            AtomicInteger gauge = new AtomicInteger();
+            Gauge.builder("seasonsbot.commands.active", gauge, AtomicInteger::get)
+                    .description("Commands currently executing")
+                    .tag("command", key)
+                    .register(meterRegistry);
+            return gauge;
+        });
+        inFlight.incrementAndGet();
+        Invocation invocation = new Invocation(command, inFlight, System.nanoTime());
+        current.set(invocation);
+        return invocation;
+    }
+
+    /**
+     * Records that the current command failed, even though its handler
+     * caught the error and replied to the user.
+     */
+    void failed(Throwable error) {
+        Invocation invocation = current.get();
+        if (invocation != null) {
+            invocation.failed(error);
+        }
+    }
+
+    /**
+     * Records that the current command was rejected because of the user's
+     * input. Doesn't override an error reported earlier.
+     */
+    void invalidInput() {
+        Invocation invocation = current.get();
+        if (invocation != null && invocation.outcome.equals(SUCCESS)) {
+            invocation.outcome = INVALID_INPUT;
+        }
+    }
+
+    final class Invocation {
+        private final String command;
+        private final AtomicInteger inFlight;
+        private final long startedAt;
+        private String outcome = SUCCESS;
+        private String exception = NONE;
+
+        private Invocation(String command, AtomicInteger inFlight, long startedAt) {
+            this.command = command;
+            this.inFlight = inFlight;
+            this.startedAt = startedAt;
+        }
+
+        void failed(Throwable error) {
+            outcome = ERROR;
+            exception = error.getClass().getSimpleName();
+        }
+
+        void stop() {
+            current.remove();
+            inFlight.decrementAndGet();
+            Timer.builder("seasonsbot.commands")
+                    .description("Command latency from the start of its handler to its return")
+                    .tag("command", command)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets per user and per guild. Each command costs
+ * {@code bot.ratelimit.command.costs} tokens (default
+ * {@code bot.ratelimit.command.cost}) and must fit in both the user's and the
+ * guild's bucket. A bucket is created once per id and updated in place, so
+ * the steady state allocates nothing; buckets that have been idle long enough
+ * to be full again are dropped by {@link #evictIdle()}.
+ */
+@Component
+public class CommandRateLimiter {
+
+    public enum Scope {
+        USER, GUILD
+    }
+
+    private final Limits userLimits;
+    private final Limits guildLimits;
+    private final int defaultCost;
+    private final Map<String, Integer> commandCosts;
+    private final long warnIntervalNanos;
+    private final ConcurrentMap<Long, Bucket> users = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Bucket> guilds = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public CommandRateLimiter(MeterRegistry meterRegistry,
+                              @Value("${bot.ratelimit.user.capacity:10}") int userCapacity,
+                              @Value("${bot.ratelimit.user.refill.per.second:0.5}") double userRefillPerSecond,
+                              @Value("${bot.ratelimit.guild.capacity:60}") int guildCapacity,
+                              @Value("${bot.ratelimit.guild.refill.per.second:3}") double guildRefillPerSecond,
+                              @Value("${bot.ratelimit.command.cost:1}") int defaultCost,
+                              @Value("#{${bot.ratelimit.command.costs:{:}}}") Map<String, Integer> commandCosts,
+                              @Value("${bot.ratelimit.warn.interval.seconds:10}") long warnIntervalSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.userLimits = Limits.perSecond(userCapacity, userRefillPerSecond);
+        this.guildLimits = Limits.perSecond(guildCapacity, guildRefillPerSecond);
+        this.defaultCost = defaultCost;
+        this.commandCosts = Map.copyOf(commandCosts);
+        this.warnIntervalNanos = TimeUnit.SECONDS.toNanos(warnIntervalSeconds);
+
+        Gauge.builder("seasonsbot.ratelimit.buckets", users, Map::size).tag("scope", "user").register(meterRegistry);
+        Gauge.builder("seasonsbot.ratelimit.buckets", guilds, Map::size).tag("scope", "guild").register(meterRegistry);
+    }
+
+    /**
+     * Takes the command's cost from the user's and the guild's bucket, or from
+     * neither.
+     *
+     * @param guildId the guild the command came from, or 0 for direct messages
+     * @return {@code null} if the command may run, otherwise why it may not
+     */
+    public Throttle tryAcquire(long userId, long guildId, String command) {
+        return tryAcquire(userId, guildId, command, System.nanoTime());
+    }
+
+    Throttle tryAcquire(long userId, long guildId, String command, long nowNanos) {
+        int cost = commandCosts.getOrDefault(command, defaultCost);
+        Bucket user = users.computeIfAbsent(userId, id -> new Bucket(userLimits, nowNanos));
+        long wait = user.take(cost, nowNanos);
+        if (wait > 0) {
+            return throttled(Scope.USER, command, wait, user.shouldWarn(nowNanos, warnIntervalNanos));
+        }
+        if (guildId == 0) {
+            return null;
+        }
+        Bucket guild = guilds.computeIfAbsent(guildId, id -> new Bucket(guildLimits, nowNanos));
+        wait = guild.take(cost, nowNanos);
+        if (wait > 0) {
+            user.refund(cost);
+            return throttled(Scope.GUILD, command, wait, user.shouldWarn(nowNanos, warnIntervalNanos));
+        }
+        return null;
+    }
+
+    /**
+     * Drops buckets that have refilled completely; recreating one later gives
+     * the same result.
+     */
+    @Scheduled(fixedDelayString = "${bot.ratelimit.evict.interval.ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        users.values().removeIf(bucket -> bucket.isFull(now));
+        guilds.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private Throttle throttled(Scope scope, String command, long waitNanos, boolean warn) {
+        Counter.builder("seasonsbot.ratelimit.throttled")
+                .description("Commands refused by the per-user or per-guild rate limit")
+                .tag("scope", scope.name().toLowerCase(Locale.ROOT))
+                .tag("command", command)
+                .register(meterRegistry)
+                .increment();
+        return new Throttle(scope, TimeUnit.NANOSECONDS.toMillis(waitNanos), warn);
+    }
+
+    /**
+     * @param retryAfterMillis how long until the command would be allowed
+     * @param warn             whether the user should be told; repeated
+     *                         refusals within the warn interval stay silent
+     */
+    public record Throttle(Scope scope, long retryAfterMillis, boolean warn) {
+    }
+
+    private record Limits(int capacity, double tokensPerNano) {
+        static Limits perSecond(int capacity, double tokensPerSecond) {
+            return new Limits(capacity, tokensPerSecond / TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    private static final class Bucket {
+        private final Limits limits;
+        private double tokens;
+        private long refilledAt;
+        private long warnedAt;
+        private boolean warned;
+
+        Bucket(Limits limits, long nowNanos) {
+            this.limits = limits;
+            this.tokens = limits.capacity();
+            this.refilledAt = nowNanos;
+        }
+
+        /**
+         * @return 0 if the tokens were taken, otherwise nanos until they would be available
+         */
+        synchronized long take(int cost, long nowNanos) {
+            refill(nowNanos);
+            double needed = Math.min(cost, limits.capacity());
+            if (tokens >= needed) {
+                tokens -= needed;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((needed - tokens) / limits.tokensPerNano()));
+        }
+
+        synchronized void refund(int cost) {
+            tokens = Math.min(limits.capacity(), tokens + Math.min(cost, limits.capacity()));
+        }
+
+        synchronized boolean shouldWarn(long nowNanos, long intervalNanos) {
+            if (warned && nowNanos - warnedAt < intervalNanos) {
+                return false;
+            }
+            warned = true;
+            warnedAt = nowNanos;
+            return true;
+        }
+
+        synchronized boolean isFull(long nowNanos) {
+            refill(nowNanos);
+            return tokens >= limits.capacity();
+        }
+
+        private void refill(long nowNanos) {
+            long elapsed = nowNanos - refilledAt;
+            if (elapsed > 0) {
+                tokens = Math.min(limits.capacity(), tokens + elapsed * limits.tokensPerNano());
+                refilledAt = nowNanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.dialodds.seasonsbot;
+
+import org.slf4j.MDC;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+
+/**
+ * Ties log lines and backend requests to the Discord message or interaction
+ * that caused them. The id lives in the SLF4J MDC under {@link #MDC_KEY}; the
+ * {@link CommandDispatcher} carries it over to its workers and the backend
+ * receives it as the {@link #HEADER} request header.
+ */
+final class CorrelationId {
+
+    static final String MDC_KEY = "correlationId";
+    static final String HEADER = "X-Correlation-Id";
+
+    private CorrelationId() {
+    }
+
+    /**
+     * Sets the id for the calling thread; pair with {@link #clear()} in a
+     * {@code finally} block.
+     */
+    static void set(String id) {
+        MDC.put(MDC_KEY, id);
+    }
+
+    static void clear() {
+        MDC.remove(MDC_KEY);
+    }
+
+    /**
+     * @return the calling thread's id, or {@code null} outside a command
+     */
+    static String current() {
+        return MDC.get(MDC_KEY);
+    }
+
+    static ClientHttpRequestInterceptor restTemplateInterceptor() {
+        return (request, body, execution) -> {
+            String id = current();
+            if (id != null) {
+                request.getHeaders().set(HEADER, id);
+            }
+            return execution.execute(request, body);
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.requests.SequentialRestRateLimiter;
+import okhttp3.Response;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps JDA's rate limiter so every Discord REST call reports how long it sat
+ * in JDA's queue ({@code seasonsbot.discord.rest.wait}, which is mostly
+ * rate-limit backoff) and how long the HTTP exchange itself took
+ * ({@code seasonsbot.discord.rest.requests}). Both are tagged with the route
+ * template, e.g. {@code channels/{channel_id}/messages}, never the ids.
+ */
+@Component
+public class DiscordRestMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Counter rateLimited;
+
+    public DiscordRestMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.rateLimited = Counter.builder("seasonsbot.discord.rest.ratelimited")
+                .description("Discord REST responses with status 429")
+                .register(meterRegistry);
+    }
+
+    public RestConfig restConfig() {
+        return new RestConfig().setRateLimiterFactory(config -> new TimedRateLimiter(new SequentialRestRateLimiter(config)));
+    }
+
+    private final class TimedRateLimiter implements RestRateLimiter {
+        private final RestRateLimiter delegate;
+
+        TimedRateLimiter(RestRateLimiter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void enqueue(Work task) {
+            delegate.enqueue(new TimedWork(task, System.nanoTime()));
+        }
+
+        @Override
+        public void stop(boolean shutdown, Runnable callback) {
+            delegate.stop(shutdown, callback);
+        }
+
+        @Override
+        public boolean isStopped() {
+            return delegate.isStopped();
+        }
+
+        @Override
+        public int cancelRequests() {
+            return delegate.cancelRequests();
+        }
+    }
+
+    private final class TimedWork implements RestRateLimiter.Work {
+        private final RestRateLimiter.Work delegate;
+        private final long enqueuedAt;
+        private boolean started;
+
+        TimedWork(RestRateLimiter.Work delegate, long enqueuedAt) {
+            this.delegate = delegate;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public Route.CompiledRoute getRoute() {
+            return delegate.getRoute();
+        }
+
+        @Override
+        public JDA getJDA() {
+            return delegate.getJDA();
+        }
+
+        @Override
+        public Response execute() {
+            Route route = delegate.getRoute().getBaseRoute();
+            long now = System.nanoTime();
+            // Retries after a 429 go through execute() again; only the first wait counts as queueing.
+            if (!started) {
+                started = true;
+                Timer.builder("seasonsbot.discord.rest.wait")
+                        .description("Time a Discord REST call waited in JDA's queue before being sent")
+                        .tag("route", route.getRoute())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(now - enqueuedAt, TimeUnit.NANOSECONDS);
+            }
+            Response response = null;
+            try {
+                response = delegate.execute();
+                return response;
+            } finally {
+                String status = response == null ? "IO_ERROR" : String.valueOf(response.code());
+                if (response != null && response.code() == 429) {
+                    rateLimited.increment();
+                }
+                Timer.builder("seasonsbot.discord.rest.requests")
+                        .description("Discord REST exchanges")
+                        .tag("route", route.getRoute())
+                        .tag("method", route.getMethod().name())
+                        .tag("status", status)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - now, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public boolean isSkipped() {
+            return delegate.isSkipped();
+        }
+
+        @Override
+        public boolean isDone() {
+            return delegate.isDone();
+        }
+
+        @Override
+        public boolean isPriority() {
+            return delegate.isPriority();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return delegate.isCancelled();
+        }
+
+        @Override
+        public void cancel() {
+            delegate.cancel();
+        }
+    }
+}
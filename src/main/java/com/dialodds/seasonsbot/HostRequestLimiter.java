@@ -0,0 +1,100 @@
+package com.dialodds.seasonsbot;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of in-flight requests per host. Waiters are parked as futures
+ * rather than threads, so async callers never block while waiting for a slot.
+ */
+class HostRequestLimiter {
+
+    private final int maxPerHost;
+    private final ConcurrentMap<String, Slots> hosts = new ConcurrentHashMap<>();
+
+    HostRequestLimiter(int maxPerHost) {
+        if (maxPerHost < 1) {
+            throw new IllegalArgumentException("maxPerHost must be at least 1");
+        }
+        this.maxPerHost = maxPerHost;
+    }
+
+    <T> T execute(String host, Supplier<T> call) {
+        Slots slots = slotsFor(host);
+        slots.acquire().join();
+        try {
+            return call.get();
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * Cancelling the returned future cancels the call, or skips it if it is
+     * still waiting for a slot.
+     */
+    <T> CompletableFuture<T> executeAsync(String host, Supplier<CompletableFuture<T>> call) {
+        Slots slots = slotsFor(host);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        slots.acquire()
+                .thenCompose(ignored -> {
+                    if (result.isDone()) {
+                        return CompletableFuture.<T>completedFuture(null);
+                    }
+                    CompletableFuture<T> running = call.get();
+                    result.whenComplete((value, error) -> running.cancel(true));
+                    return running;
+                })
+                .whenComplete((value, error) -> {
+                    slots.release();
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+        return result;
+    }
+
+    private Slots slotsFor(String host) {
+        return hosts.computeIfAbsent(host == null ? "" : host, key -> new Slots(maxPerHost));
+    }
+
+    private static final class Slots {
+        private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        private int available;
+
+        Slots(int available) {
+            this.available = available;
+        }
+
+        CompletableFuture<Void> acquire() {
+            synchronized (this) {
+                if (available > 0) {
+                    available--;
+                    return CompletableFuture.completedFuture(null);
+                }
+                CompletableFuture<Void> waiter = new CompletableFuture<>();
+                waiters.addLast(waiter);
+                return waiter;
+            }
+        }
+
+        void release() {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = waiters.pollFirst();
+                if (next == null) {
+                    available++;
+                    return;
+                }
+            }
+            // Hand the slot straight to the next waiter outside the lock.
+            next.complete(null);
+        }
+    }
+}
@@ -1,34 +1,149 @@
 package com.dialodds.seasonsbot;
 
+import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.EnumSet;
 
+/**
+ * Owns the bot's gateway connection. Intents and cache flags are configurable
+ * so the bot only receives and caches what the commands need. With
+ * {@code discord.shards.enabled} the bot runs a ShardManager instead, and
+ * {@code discord.shards.range} lets several replicas split the shards between
+ * them. Listeners never see the difference.
+ */
 @Component
 public class JDAInitializer {
 
+    private static final Logger logger = LoggerFactory.getLogger(JDAInitializer.class);
+
     private final CommandHandler commandHandler;
+    private final ShardEventMetrics shardEventMetrics;
+    private final DiscordRestMetrics discordRestMetrics;
+    private final String token;
+    private final EnumSet<GatewayIntent> intents;
+    private final EnumSet<CacheFlag> disabledCache;
+    private final String activity;
+    private final boolean sharded;
+    private final int shardsTotal;
+    private final String shardRange;
+
+    private JDA jda;
+    private ShardManager shardManager;
 
-    public JDAInitializer(CommandHandler commandHandler) {
+    public JDAInitializer(CommandHandler commandHandler, ShardEventMetrics shardEventMetrics,
+                          DiscordRestMetrics discordRestMetrics,
+                          @Value("${discord.bot.token}") String token,
+                          @Value("${discord.gateway.intents:GUILD_MESSAGES,DIRECT_MESSAGES,MESSAGE_CONTENT}") String[] intents,
+                          @Value("${discord.cache.disabled:ACTIVITY,VOICE_STATE,EMOJI,STICKER,CLIENT_STATUS,ONLINE_STATUS,SCHEDULED_EVENTS,MEMBER_OVERRIDES}") String[] disabledCache,
+                          @Value("${discord.activity:NFL Betting Seasons}") String activity,
+                          @Value("${discord.shards.enabled:false}") boolean sharded,
+                          @Value("${discord.shards.total:-1}") int shardsTotal,
+                          @Value("${discord.shards.range:}") String shardRange) {
         this.commandHandler = commandHandler;
+        this.shardEventMetrics = shardEventMetrics;
+        this.discordRestMetrics = discordRestMetrics;
+        this.token = token;
+        this.intents = parseEnums(GatewayIntent.class, intents);
+        this.disabledCache = parseEnums(CacheFlag.class, disabledCache);
+        this.activity = activity;
+        this.sharded = sharded;
+        this.shardsTotal = shardsTotal;
+        this.shardRange = shardRange.trim();
     }
 
     @PostConstruct
     public void initJDA() throws Exception {
-        String token = System.getProperty("DISCORD_BOT_TOKEN");
         if (token == null || token.isEmpty()) {
             throw new IllegalStateException("DISCORD_BOT_TOKEN is not set");
         }
 
-        JDABuilder.createDefault(token)
-            .enableIntents(GatewayIntent.GUILD_MESSAGES, GatewayIntent.MESSAGE_CONTENT)
-            .disableCache(CacheFlag.MEMBER_OVERRIDES, CacheFlag.VOICE_STATE)
+        if (sharded) {
+            startShardManager();
+            return;
+        }
+
+        jda = JDABuilder.create(token, intents)
+            .disableCache(disabledCache)
+            .setMemberCachePolicy(MemberCachePolicy.NONE)
+            .setChunkingFilter(ChunkingFilter.NONE)
             .setBulkDeleteSplittingEnabled(false)
             .setLargeThreshold(50)
-            .addEventListeners(commandHandler)
+            .setActivity(Activity.playing(activity))
+            .setRestConfig(discordRestMetrics.restConfig())
+            .addEventListeners(commandHandler, shardEventMetrics)
             .build();
+
+        jda.awaitReady();
+        logger.info("SeasonsBot is ready!");
+    }
+
+    private void startShardManager() {
+        DefaultShardManagerBuilder builder = DefaultShardManagerBuilder.create(token, intents)
+            .disableCache(disabledCache)
+            .setMemberCachePolicy(MemberCachePolicy.NONE)
+            .setChunkingFilter(ChunkingFilter.NONE)
+            .setBulkDeleteSplittingEnabled(false)
+            .setLargeThreshold(50)
+            .setActivity(Activity.playing(activity))
+            .setShardsTotal(shardsTotal)
+            .setRestConfigProvider(shard -> discordRestMetrics.restConfig())
+            .addEventListeners(commandHandler, shardEventMetrics);
+
+        if (!shardRange.isEmpty()) {
+            if (shardsTotal < 1) {
+                throw new IllegalStateException("discord.shards.total must be set when discord.shards.range is used");
+            }
+            String[] bounds = shardRange.split("-");
+            int first = Integer.parseInt(bounds[0].trim());
+            int last = Integer.parseInt(bounds[bounds.length - 1].trim());
+            builder.setShards(first, last);
+        }
+
+        shardManager = builder.build();
+        logger.info("SeasonsBot started in sharded mode (total: {}, range: {})",
+                shardsTotal < 1 ? "auto" : shardsTotal, shardRange.isEmpty() ? "all" : shardRange);
+    }
+
+    public JDA getJda() {
+        return jda;
+    }
+
+    public ShardManager getShardManager() {
+        return shardManager;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (jda != null) {
+            jda.shutdown();
+        }
+        if (shardManager != null) {
+            shardManager.shutdown();
+        }
+    }
+
+    private static <E extends Enum<E>> EnumSet<E> parseEnums(Class<E> type, String[] names) {
+        EnumSet<E> values = EnumSet.noneOf(type);
+        Arrays.stream(names)
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(name -> Enum.valueOf(type, name))
+                .forEach(values::add);
+        return values;
     }
-}
\ No newline at end of file
+}
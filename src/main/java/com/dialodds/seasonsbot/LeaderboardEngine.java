@@ -0,0 +1,225 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves leaderboard pages and ranks. Whether the backend has the paged
+ * leaderboard endpoints is probed once at startup; if it does, only the
+ * requested page or top-N is fetched. Otherwise a {@link SeasonLeaderboard}
+ * is kept per season, loaded on first use and re-synced after
+ * {@code bot.leaderboard.resync.minutes}. In between, balance changes the bot
+ * makes itself are applied as deltas, so a request never sorts.
+ */
+@Component
+public class LeaderboardEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardEngine.class);
+
+    private final ApiClient apiClient;
+    private final Duration resyncInterval;
+    private final int maxSeasons;
+    private final Map<Integer, Holder> seasons = new ConcurrentHashMap<>();
+    private volatile boolean pagedApi;
+
+    public LeaderboardEngine(ApiClient apiClient, MeterRegistry meterRegistry,
+                             @Value("${bot.leaderboard.resync.minutes:10}") long resyncMinutes,
+                             @Value("${bot.leaderboard.max.seasons:64}") int maxSeasons) {
+        this.apiClient = apiClient;
+        this.resyncInterval = Duration.ofMinutes(resyncMinutes);
+        this.maxSeasons = maxSeasons;
+        Gauge.builder("seasonsbot.leaderboard.seasons", seasons, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Asks the backend once whether it serves the paged endpoints, by
+     * fetching the top entry of an active season. Until the answer arrives,
+     * and whenever it is not a plain success, the per-season trees are used.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void probePagedApi() {
+        apiClient.getActiveSeasonsAsync()
+                .thenCompose(response -> {
+                    List<Season> active = response.getBody();
+                    if (active == null || active.isEmpty()) {
+                        // With no season to ask about, a 404 could not tell a missing endpoint from a missing season.
+                        return CompletableFuture.completedFuture(false);
+                    }
+                    return apiClient.getLeaderboardTopAsync(active.get(0).getId(), 1).thenApply(top -> true);
+                })
+                .whenComplete((supported, error) -> {
+                    pagedApi = error == null && supported;
+                    if (pagedApi) {
+                        logger.info("Backend serves paged leaderboards, fetching only the requested entries");
+                    } else if (error == null) {
+                        logger.info("No active season to probe paged leaderboards with, using full season downloads");
+                    } else {
+                        logger.info("Backend paged leaderboard probe failed, using full season downloads: {}",
+                                error.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * @return the season's first {@code limit} standings, best first
+     */
+    public List<SeasonLeaderboard.Standing> top(int seasonId, int limit) {
+        if (pagedApi) {
+            try {
+                List<SeasonLeaderboard.Standing> result = apiClient.getLeaderboardTop(seasonId, limit).getBody();
+                return result == null ? List.of() : result;
+            } catch (HttpStatusCodeException e) {
+                if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                    return List.of();
+                }
+                if (!isUnsupported(e)) {
+                    throw e;
+                }
+                disablePagedApi();
+            }
+        }
+        return leaderboard(seasonId).page(0, limit);
+    }
+
+    /**
+     * @param page zero-based page number
+     */
+    public LeaderboardPage page(int seasonId, int page, int size) {
+        if (pagedApi) {
+            try {
+                LeaderboardPage result = apiClient.getLeaderboardPage(seasonId, page, size).getBody();
+                if (result != null) {
+                    return result;
+                }
+            } catch (HttpStatusCodeException e) {
+                if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                    // The probe found the endpoint, so it is the season that is missing.
+                    return new LeaderboardPage(page, size, 0, List.of());
+                }
+                if (!isUnsupported(e)) {
+                    throw e;
+                }
+                disablePagedApi();
+            }
+        }
+        SeasonLeaderboard board = leaderboard(seasonId);
+        return new LeaderboardPage(page, size, board.size(), board.page(page * size, size));
+    }
+
+    /**
+     * @return the user's standing, or {@code null} if they are not in the season
+     */
+    public SeasonLeaderboard.Standing standingOf(int seasonId, String discordId) {
+        if (pagedApi) {
+            try {
+                return apiClient.getUserRank(seasonId, discordId).getBody();
+            } catch (HttpStatusCodeException e) {
+                if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                    return null;
+                }
+                if (!isUnsupported(e)) {
+                    throw e;
+                }
+                disablePagedApi();
+            }
+        }
+        return leaderboard(seasonId).standingOf(discordId);
+    }
+
+    /**
+     * @return the season's standings, loading or re-syncing them first if needed
+     */
+    public SeasonLeaderboard leaderboard(int seasonId) {
+        Holder holder = seasons.computeIfAbsent(seasonId, id -> new Holder());
+        synchronized (holder) {
+            Instant now = Instant.now();
+            if (holder.syncedAt == null || !now.isBefore(holder.syncedAt.plus(resyncInterval))) {
+                // Streamed straight into the tree, so a large season is never held as a list.
+                Set<Integer> present = new HashSet<>();
+                apiClient.streamUsersBySeason(seasonId, user -> {
+                    present.add(user.getId());
+                    holder.board.upsert(user);
+                    return true;
+                });
+                holder.board.retainOnly(present);
+                holder.syncedAt = now;
+            }
+        }
+        if (seasons.size() > maxSeasons) {
+            evictOldest(seasonId);
+        }
+        return holder.board;
+    }
+
+    /**
+     * Applies a balance change to a season that is already loaded. Seasons
+     * nobody has looked at yet are left alone and loaded fresh when needed.
+     */
+    public void applyDelta(int seasonId, int userId, int delta) {
+        Holder holder = seasons.get(seasonId);
+        if (holder != null && !holder.board.applyDelta(userId, delta)) {
+            invalidate(seasonId);
+        }
+    }
+
+    /**
+     * Forces the next request for the season to re-sync from the backend.
+     */
+    public void invalidate(int seasonId) {
+        Holder holder = seasons.get(seasonId);
+        if (holder != null) {
+            synchronized (holder) {
+                holder.syncedAt = null;
+            }
+        }
+    }
+
+    public void remove(int seasonId) {
+        seasons.remove(seasonId);
+    }
+
+    private static boolean isUnsupported(HttpStatusCodeException e) {
+        return e.getStatusCode() == HttpStatus.METHOD_NOT_ALLOWED || e.getStatusCode() == HttpStatus.NOT_IMPLEMENTED;
+    }
+
+    private void disablePagedApi() {
+        if (pagedApi) {
+            pagedApi = false;
+            logger.warn("Backend has no paged leaderboard endpoints, falling back to full season downloads");
+        }
+    }
+
+    private void evictOldest(int keep) {
+        seasons.entrySet().stream()
+                .filter(entry -> entry.getKey() != keep)
+                .min(Comparator.comparing(entry -> entry.getValue().lastSync()))
+                .ifPresent(entry -> seasons.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private static final class Holder {
+        private final SeasonLeaderboard board = new SeasonLeaderboard();
+        private Instant syncedAt;
+
+        synchronized Instant lastSync() {
+            return syncedAt == null ? Instant.MIN : syncedAt;
+        }
+    }
+}
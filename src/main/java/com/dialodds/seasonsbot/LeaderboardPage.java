@@ -0,0 +1,61 @@
+package com.dialodds.seasonsbot;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class LeaderboardPage {
+    private int page;
+
+    private int size;
+
+    @JsonProperty("total_users")
+    private int totalUsers;
+
+    private List<SeasonLeaderboard.Standing> entries;
+
+    public LeaderboardPage() {}
+
+    public LeaderboardPage(int page, int size, int totalUsers, List<SeasonLeaderboard.Standing> entries) {
+        this.page = page;
+        this.size = size;
+        this.totalUsers = totalUsers;
+        this.entries = entries;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getTotalUsers() {
+        return totalUsers;
+    }
+
+    public void setTotalUsers(int totalUsers) {
+        this.totalUsers = totalUsers;
+    }
+
+    public List<SeasonLeaderboard.Standing> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<SeasonLeaderboard.Standing> entries) {
+        this.entries = entries;
+    }
+
+    public int totalPages() {
+        return size <= 0 ? 0 : (totalUsers + size - 1) / size;
+    }
+}
@@ -0,0 +1,87 @@
+package com.dialodds.seasonsbot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Decodes every team logo once at startup and keeps them in memory. A logo
+ * directory given by LOGO_PATH (or /app/logos in the Docker image) takes
+ * precedence over the logos bundled on the classpath.
+ */
+@Component
+public class LogoAtlas {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogoAtlas.class);
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-zA-Z0-9]");
+
+    private volatile Map<String, BufferedImage> logos = Map.of();
+
+    @PostConstruct
+    public void load() throws IOException {
+        Map<String, BufferedImage> loaded = new HashMap<>();
+        File directory = findLogoDirectory();
+        if (directory != null) {
+            File[] files = directory.listFiles((dir, name) -> name.endsWith(".png"));
+            if (files != null) {
+                for (File file : files) {
+                    putLogo(loaded, file.getName(), ImageIO.read(file));
+                }
+            }
+        } else {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath:static/logos/*.png");
+            for (Resource resource : resources) {
+                try (InputStream in = resource.getInputStream()) {
+                    putLogo(loaded, resource.getFilename(), ImageIO.read(in));
+                }
+            }
+        }
+        logos = Map.copyOf(loaded);
+        logger.info("Loaded {} team logos", logos.size());
+    }
+
+    public BufferedImage getLogo(String teamName) throws FileNotFoundException {
+        BufferedImage logo = logos.get(keyFor(teamName));
+        if (logo == null) {
+            throw new FileNotFoundException("No logo found for " + teamName);
+        }
+        return logo;
+    }
+
+    static String keyFor(String teamName) {
+        return NON_ALPHANUMERIC.matcher(teamName).replaceAll("");
+    }
+
+    private void putLogo(Map<String, BufferedImage> loaded, String filename, BufferedImage image) {
+        if (filename == null || image == null) {
+            return;
+        }
+        loaded.put(filename.substring(0, filename.length() - ".png".length()), image);
+    }
+
+    private File findLogoDirectory() {
+        String[] possiblePaths = {
+                System.getenv("LOGO_PATH"),
+                "/app/logos"
+        };
+        for (String path : possiblePaths) {
+            if (path != null && new File(path).isDirectory()) {
+                return new File(path);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,146 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Composites the away and home logos side by side and caches the encoded PNG
+ * per matchup, so paging back and forth through games never re-renders.
+ * Encoding happens entirely in memory: each thread reuses its own output
+ * buffer and ImageIO's disk-backed stream cache is switched off.
+ */
+@Component
+public class MatchupImageRenderer {
+
+    private static final Font TEAM_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final ThreadLocal<EncodeBuffer> ENCODE_BUFFERS = ThreadLocal.withInitial(EncodeBuffer::new);
+
+    static {
+        // Otherwise ImageIO spools every encoded stream through a temp file.
+        ImageIO.setUseCache(false);
+    }
+
+    private final LogoAtlas logoAtlas;
+    private final long maxCacheBytes;
+    private final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+    private final Counter hits;
+    private final Counter misses;
+
+    public MatchupImageRenderer(LogoAtlas logoAtlas, MeterRegistry meterRegistry,
+                                @Value("${bot.images.cache.max.bytes:33554432}") long maxCacheBytes) {
+        this.logoAtlas = logoAtlas;
+        this.maxCacheBytes = maxCacheBytes;
+        this.hits = Counter.builder("seasonsbot.images.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("seasonsbot.images.cache.misses").register(meterRegistry);
+        Gauge.builder("seasonsbot.images.cache.bytes", this, MatchupImageRenderer::cachedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public byte[] render(String awayTeam, String homeTeam) throws IOException {
+        String key = awayTeam + "@" + homeTeam;
+        synchronized (cache) {
+            byte[] cached = cache.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+
+        byte[] png = encode(compose(awayTeam, homeTeam));
+        synchronized (cache) {
+            byte[] previous = cache.put(key, png);
+            cachedBytes += png.length - (previous == null ? 0 : previous.length);
+            evictOverflow();
+        }
+        return png;
+    }
+
+    public long cachedBytes() {
+        synchronized (cache) {
+            return cachedBytes;
+        }
+    }
+
+    private BufferedImage compose(String awayTeam, String homeTeam) throws IOException {
+        BufferedImage awayLogo = logoAtlas.getLogo(awayTeam);
+        BufferedImage homeLogo = logoAtlas.getLogo(homeTeam);
+
+        int width = awayLogo.getWidth() + homeLogo.getWidth() + 100;
+        int height = Math.max(awayLogo.getHeight(), homeLogo.getHeight()) + 60;
+
+        BufferedImage combined = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = combined.getGraphics();
+
+        g.setFont(TEAM_FONT);
+        g.drawString(awayTeam, 10, 25);
+        g.drawString(homeTeam, awayLogo.getWidth() + 110, 25);
+
+        g.drawImage(awayLogo, 0, 30, null);
+        g.drawImage(homeLogo, awayLogo.getWidth() + 100, 30, null);
+
+        g.dispose();
+        return combined;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        EncodeBuffer buffer = ENCODE_BUFFERS.get();
+        buffer.reset();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        try (ImageOutputStream out = new MemoryCacheImageOutputStream(buffer)) {
+            writer.setOutput(out);
+            writer.write(image);
+        } finally {
+            writer.dispose();
+        }
+        return buffer.toByteArray();
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, byte[]>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Growable buffer that keeps its backing array between encodes, shrinking
+     * back if an unusually large image inflated it.
+     */
+    private static final class EncodeBuffer extends ByteArrayOutputStream {
+
+        private static final int INITIAL_CAPACITY = 64 * 1024;
+        private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+        EncodeBuffer() {
+            super(INITIAL_CAPACITY);
+        }
+
+        @Override
+        public synchronized void reset() {
+            if (buf.length > MAX_RETAINED_CAPACITY) {
+                buf = new byte[INITIAL_CAPACITY];
+            }
+            super.reset();
+        }
+    }
+}
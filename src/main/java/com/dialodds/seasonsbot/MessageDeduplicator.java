@@ -0,0 +1,92 @@
+package com.dialodds.seasonsbot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Remembers recently seen message snowflakes in a fixed-size, lock-free hash
+ * table. A snowflake carries its own creation time, so entries expire in
+ * place without any timer: an expired slot is simply reused by the next
+ * insert that probes it. When every probed slot is still live the oldest one
+ * is overwritten, so memory stays constant under any burst.
+ * <p>
+ * Because age is measured from the message's creation, not from when the bot
+ * first saw it, {@code bot.dedup.window.seconds} has to cover the oldest
+ * message a gateway resume may replay; the default allows 15 minutes.
+ */
+@Component
+public class MessageDeduplicator {
+
+    private static final long DISCORD_EPOCH = 1420070400000L;
+    private static final int TIMESTAMP_SHIFT = 22;
+    private static final int MAX_PROBES = 8;
+    private static final long EMPTY = 0L;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long windowMillis;
+
+    public MessageDeduplicator(@Value("${bot.dedup.capacity:4096}") int capacity,
+                               @Value("${bot.dedup.window.seconds:900}") long windowSeconds) {
+        int size = Integer.highestOneBit(Math.max(capacity, MAX_PROBES) - 1) << 1;
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.windowMillis = windowSeconds * 1000;
+    }
+
+    /**
+     * @return {@code true} the first time a message ID is offered within the window
+     */
+    public boolean firstSeen(long messageId) {
+        return firstSeen(messageId, System.currentTimeMillis());
+    }
+
+    boolean firstSeen(long messageId, long nowMillis) {
+        int start = spread(messageId);
+
+        while (true) {
+            int freeIndex = -1;
+            long freeValue = EMPTY;
+            int oldestIndex = -1;
+            long oldestId = Long.MAX_VALUE;
+
+            // Check every probed slot before claiming one: the ID may sit past a slot that has since expired.
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int index = (start + probe) & mask;
+                long current = slots.get(index);
+                if (current == messageId) {
+                    return false;
+                }
+                if (current == EMPTY || isExpired(current, nowMillis)) {
+                    if (freeIndex < 0) {
+                        freeIndex = index;
+                        freeValue = current;
+                    }
+                } else if (current < oldestId) {
+                    // Snowflakes grow with time, so the smallest one is the oldest.
+                    oldestId = current;
+                    oldestIndex = index;
+                }
+            }
+
+            if (freeIndex >= 0 ? slots.compareAndSet(freeIndex, freeValue, messageId)
+                    : slots.compareAndSet(oldestIndex, oldestId, messageId)) {
+                return true;
+            }
+            // Lost a race for the slot; scan again, another thread may have stored our ID.
+        }
+    }
+
+    private boolean isExpired(long snowflake, long nowMillis) {
+        long createdAt = (snowflake >>> TIMESTAMP_SHIFT) + DISCORD_EPOCH;
+        return nowMillis - createdAt > windowMillis;
+    }
+
+    int spread(long messageId) {
+        // The low bits of a snowflake are a per-process counter, so mix the whole value.
+        long h = messageId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,101 @@
+package com.dialodds.seasonsbot;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fixed one-byte identifiers for the 32 NFL teams, so compact records can
+ * store a team in a single byte instead of a String reference. Names outside
+ * this table are handled by each record type itself, e.g. {@link BetTable}
+ * keeps its own dictionary for them.
+ */
+public final class NflTeams {
+
+    public static final byte UNKNOWN = -1;
+
+    private static final String[] NFL_TEAMS = {
+            "Arizona Cardinals", "Atlanta Falcons", "Baltimore Ravens", "Buffalo Bills",
+            "Carolina Panthers", "Chicago Bears", "Cincinnati Bengals", "Cleveland Browns",
+            "Dallas Cowboys", "Denver Broncos", "Detroit Lions", "Green Bay Packers",
+            "Houston Texans", "Indianapolis Colts", "Jacksonville Jaguars", "Kansas City Chiefs",
+            "Las Vegas Raiders", "Los Angeles Chargers", "Los Angeles Rams", "Miami Dolphins",
+            "Minnesota Vikings", "New England Patriots", "New Orleans Saints", "New York Giants",
+            "New York Jets", "Philadelphia Eagles", "Pittsburgh Steelers", "San Francisco 49ers",
+            "Seattle Seahawks", "Tampa Bay Buccaneers", "Tennessee Titans", "Washington Commanders"
+    };
+
+    /**
+     * Number of fixed IDs; the first ID free for other names.
+     */
+    public static final int COUNT = NFL_TEAMS.length;
+
+    private static final Map<String, Byte> ids = new HashMap<>();
+    private static final String[] keys = new String[COUNT];
+    private static final Map<String, Byte> nicknames = new HashMap<>();
+
+    static {
+        for (int i = 0; i < COUNT; i++) {
+            ids.put(NFL_TEAMS[i], (byte) i);
+            keys[i] = key(NFL_TEAMS[i]);
+            nicknames.put(key(NFL_TEAMS[i].substring(NFL_TEAMS[i].lastIndexOf(' ') + 1)), (byte) i);
+        }
+    }
+
+    private NflTeams() {
+    }
+
+    /**
+     * @return the team's ID, or {@link #UNKNOWN} for {@code null} or a name
+     *         that is not one of the 32 teams
+     */
+    public static byte id(String name) {
+        Byte id = name == null ? null : ids.get(name);
+        return id == null ? UNKNOWN : id;
+    }
+
+    /**
+     * Resolves a team name typed by a user: the full name, the nickname
+     * ({@code chiefs}, {@code 49ers}) or the start of the full name
+     * ({@code kansas city}), ignoring case, spaces and punctuation.
+     *
+     * @return the team's ID, or {@link #UNKNOWN} unless exactly one team matches
+     */
+    public static byte find(String input) {
+        String key = input == null ? "" : key(input);
+        if (key.isEmpty()) {
+            return UNKNOWN;
+        }
+        for (int i = 0; i < COUNT; i++) {
+            if (keys[i].equals(key)) {
+                return (byte) i;
+            }
+        }
+        Byte nickname = nicknames.get(key);
+        if (nickname != null) {
+            return nickname;
+        }
+        byte match = UNKNOWN;
+        for (int i = 0; i < COUNT; i++) {
+            if (keys[i].startsWith(key)) {
+                if (match != UNKNOWN) {
+                    return UNKNOWN;
+                }
+                match = (byte) i;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * @return the team's name, or {@code null} if the ID is not a fixed one
+     */
+    public static String name(byte id) {
+        int index = Byte.toUnsignedInt(id);
+        return index < COUNT ? NFL_TEAMS[index] : null;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+}
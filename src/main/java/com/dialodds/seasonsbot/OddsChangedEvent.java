@@ -0,0 +1,14 @@
+package com.dialodds.seasonsbot;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Published by {@link OddsTracker} when a poll finds games whose line moved.
+ * Games that did not change are never included.
+ */
+public record OddsChangedEvent(Instant observedAt, List<Change> changes) {
+
+    public record Change(Game game, int week, OddsHistory.Quote previous, OddsHistory.Quote current) {
+    }
+}
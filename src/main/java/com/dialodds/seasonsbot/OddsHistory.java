@@ -0,0 +1,82 @@
+package com.dialodds.seasonsbot;
+
+import java.time.Instant;
+
+/**
+ * Odds movement for one game, kept in fixed primitive ring buffers. Only
+ * changes are appended, so a quiet game costs a single entry no matter how
+ * often it is polled. Once the buffer is full the oldest movements are
+ * dropped, but the opening line is always kept.
+ */
+public final class OddsHistory {
+
+    private final long kickoffEpochSecond;
+    // Epoch seconds stored unsigned, which holds until 2106.
+    private final int[] observedAt;
+    private final double[] homeOdds;
+    private final double[] awayOdds;
+    private final double openingHome;
+    private final double openingAway;
+    private final int openedAt;
+    private int head;
+    private int size;
+
+    OddsHistory(Instant kickoff, int capacity, Instant openedAt, double home, double away) {
+        this.kickoffEpochSecond = kickoff == null ? Long.MAX_VALUE : kickoff.getEpochSecond();
+        this.observedAt = new int[capacity];
+        this.homeOdds = new double[capacity];
+        this.awayOdds = new double[capacity];
+        this.openingHome = home;
+        this.openingAway = away;
+        this.openedAt = (int) openedAt.getEpochSecond();
+        append(openedAt, home, away);
+    }
+
+    /**
+     * @return the quote this one replaced, or {@code null} if the odds did not move
+     */
+    synchronized Quote record(Instant at, double home, double away) {
+        int last = (head - 1 + observedAt.length) % observedAt.length;
+        if (homeOdds[last] == home && awayOdds[last] == away) {
+            return null;
+        }
+        Quote previous = quoteAt(last);
+        append(at, home, away);
+        return previous;
+    }
+
+    public synchronized Quote latest() {
+        return quoteAt((head - 1 + observedAt.length) % observedAt.length);
+    }
+
+    public Quote opening() {
+        return new Quote(openingHome, openingAway, Instant.ofEpochSecond(Integer.toUnsignedLong(openedAt)));
+    }
+
+    /**
+     * @return how many distinct quotes are retained, including the current one
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    boolean kickedOffBefore(Instant cutoff) {
+        return kickoffEpochSecond < cutoff.getEpochSecond();
+    }
+
+    private void append(Instant at, double home, double away) {
+        observedAt[head] = (int) at.getEpochSecond();
+        homeOdds[head] = home;
+        awayOdds[head] = away;
+        head = (head + 1) % observedAt.length;
+        size = Math.min(size + 1, observedAt.length);
+    }
+
+    private Quote quoteAt(int index) {
+        return new Quote(homeOdds[index], awayOdds[index],
+                Instant.ofEpochSecond(Integer.toUnsignedLong(observedAt[index])));
+    }
+
+    public record Quote(double home, double away, Instant observedAt) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls the upcoming weeks' games in the background and diffs each snapshot
+ * against the last one. Only games whose odds moved are published, as an
+ * {@link OddsChangedEvent}, and every movement is kept in a small per-game
+ * {@link OddsHistory} so commands can show the current line without asking
+ * the backend again. The {@link ScheduleCache} listens for the event and
+ * swaps the moved games into its cached lists.
+ */
+@Component
+public class OddsTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(OddsTracker.class);
+
+    private final ApiClient apiClient;
+    private final SeasonCalendar seasonCalendar;
+    private final ScheduleCache scheduleCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int weeksAhead;
+    private final int historySize;
+    private final Duration retention;
+    private final Map<Integer, OddsHistory> histories = new ConcurrentHashMap<>();
+    private final Counter changes;
+
+    public OddsTracker(ApiClient apiClient, SeasonCalendar seasonCalendar, ScheduleCache scheduleCache,
+                       ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                       @Value("${bot.odds.poll.enabled:true}") boolean enabled,
+                       @Value("${bot.odds.poll.weeks:2}") int weeksAhead,
+                       @Value("${bot.odds.history.size:32}") int historySize,
+                       @Value("${bot.odds.retention.hours:24}") long retentionHours) {
+        this.apiClient = apiClient;
+        this.seasonCalendar = seasonCalendar;
+        this.scheduleCache = scheduleCache;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.weeksAhead = Math.max(1, weeksAhead);
+        this.historySize = Math.max(2, historySize);
+        this.retention = Duration.ofHours(retentionHours);
+        this.changes = Counter.builder("seasonsbot.odds.changes").register(meterRegistry);
+        Gauge.builder("seasonsbot.odds.tracked.games", histories, Map::size).register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${bot.odds.poll.initial.delay.ms:30000}",
+            fixedDelayString = "${bot.odds.poll.interval.ms:60000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        List<Integer> weeks;
+        int firstWeek;
+        try {
+            weeks = scheduleCache.getNflWeeks();
+            firstWeek = Math.max(1, seasonCalendar.currentWeek());
+        } catch (Exception e) {
+            logger.warn("Failed to determine which weeks to poll", e);
+            return;
+        }
+        Map<Integer, CompletableFuture<ResponseEntity<List<Game>>>> snapshots = new LinkedHashMap<>();
+        for (int week = firstWeek; week < firstWeek + weeksAhead; week++) {
+            if (weeks.contains(week)) {
+                snapshots.put(week, apiClient.getNflGamesByWeekAsync(week));
+            }
+        }
+
+        Instant now = Instant.now();
+        List<OddsChangedEvent.Change> changed = new ArrayList<>();
+        snapshots.forEach((week, snapshot) -> {
+            try {
+                List<Game> games = snapshot.join().getBody();
+                if (games == null) {
+                    return;
+                }
+                games.forEach(game -> diff(game, week, now, changed));
+            } catch (Exception e) {
+                logger.warn("Failed to poll NFL odds for week {}", week, e);
+            }
+        });
+
+        Instant cutoff = now.minus(retention);
+        histories.values().removeIf(history -> history.kickedOffBefore(cutoff));
+
+        if (!changed.isEmpty()) {
+            changes.increment(changed.size());
+            eventPublisher.publishEvent(new OddsChangedEvent(now, List.copyOf(changed)));
+        }
+    }
+
+    /**
+     * @return the game's odds movement, or {@code null} if it has not been polled yet
+     */
+    public OddsHistory history(int gameId) {
+        return histories.get(gameId);
+    }
+
+    /**
+     * @return the newest quote seen for the game, or one built from the game itself
+     */
+    public OddsHistory.Quote currentOdds(Game game) {
+        OddsHistory history = histories.get(game.getId());
+        return history == null
+                ? new OddsHistory.Quote(game.getHomeOdds(), game.getAwayOdds(), null)
+                : history.latest();
+    }
+
+    private void diff(Game game, int week, Instant now, List<OddsChangedEvent.Change> changed) {
+        OddsHistory history = histories.get(game.getId());
+        if (history == null) {
+            // The first sighting is the baseline, not a change.
+            histories.putIfAbsent(game.getId(), new OddsHistory(game.getCommenceTime(), historySize, now,
+                    game.getHomeOdds(), game.getAwayOdds()));
+            return;
+        }
+        OddsHistory.Quote previous = history.record(now, game.getHomeOdds(), game.getAwayOdds());
+        if (previous != null) {
+            changed.add(new OddsChangedEvent.Change(game, week, previous, history.latest()));
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Sends the bot's channel messages one at a time per channel, matching
+ * Discord's per-channel rate limit, and decides what goes next instead of
+ * handing everything to JDA's unbounded queue:
+ * <ul>
+ *   <li>replies go before edits, and edits before cosmetic actions;</li>
+ *   <li>a typing indicator is dropped if one is already queued or was sent
+ *       within {@code bot.outbound.typing.interval.ms}, and a queued one is
+ *       dropped once a reply goes out, since the reply ends it anyway;</li>
+ *   <li>a queued edit of a message is replaced by a newer edit of the same
+ *       message, so rapid Prev/Next clicks only send the latest page.</li>
+ * </ul>
+ * Interaction edits go through the interaction's webhook, which Discord
+ * limits apart from the channel, so they get a lane per message instead of
+ * waiting behind the channel's replies.
+ * <p>
+ * Once a channel has {@code bot.outbound.channel.max.queued} actions queued,
+ * cosmetic actions make room for the rest and further edits and cosmetic
+ * actions are dropped. Replies answer a command that has already run, such
+ * as a bet whose coins have moved, so they are still queued up to
+ * {@code bot.outbound.channel.max.replies}; past that the channel is too far
+ * behind for a reply to be useful and it is dropped and logged.
+ */
+@Component
+public class OutboundScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboundScheduler.class);
+
+    enum Kind {
+        REPLY, EDIT, COSMETIC
+    }
+
+    private final ConcurrentMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxQueuedPerChannel;
+    private final int maxRepliesPerChannel;
+    private final long typingIntervalNanos;
+    private final long idleEvictNanos;
+    private final Counter typingMerged;
+    private final Counter editsCoalesced;
+    private final MeterRegistry meterRegistry;
+
+    public OutboundScheduler(MeterRegistry meterRegistry,
+                             @Value("${bot.outbound.channel.max.queued:25}") int maxQueuedPerChannel,
+                             @Value("${bot.outbound.channel.max.replies:100}") int maxRepliesPerChannel,
+                             @Value("${bot.outbound.typing.interval.ms:8000}") long typingIntervalMs,
+                             @Value("${bot.outbound.idle.evict.seconds:300}") long idleEvictSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.maxQueuedPerChannel = maxQueuedPerChannel;
+        this.maxRepliesPerChannel = Math.max(maxQueuedPerChannel, maxRepliesPerChannel);
+        this.typingIntervalNanos = TimeUnit.MILLISECONDS.toNanos(typingIntervalMs);
+        this.idleEvictNanos = TimeUnit.SECONDS.toNanos(idleEvictSeconds);
+
+        Gauge.builder("seasonsbot.outbound.queued", queued, AtomicInteger::get)
+                .description("Discord actions waiting for their channel")
+                .register(meterRegistry);
+        Gauge.builder("seasonsbot.outbound.channels", lanes, Map::size)
+                .description("Channels with an outbound lane")
+                .register(meterRegistry);
+        this.typingMerged = Counter.builder("seasonsbot.outbound.coalesced").tag("kind", "typing")
+                .description("Typing indicators merged into one already queued or recently sent, or overtaken by a reply")
+                .register(meterRegistry);
+        this.editsCoalesced = Counter.builder("seasonsbot.outbound.coalesced").tag("kind", "edit")
+                .description("Message edits superseded by a newer edit of the same message")
+                .register(meterRegistry);
+    }
+
+    public <T> void reply(MessageChannel channel, RestAction<T> action) {
+        reply(channel, action, null);
+    }
+
+    public <T> void reply(MessageChannel channel, RestAction<T> action, Consumer<? super T> success) {
+        submit(channel.getIdLong(), new Task(Kind.REPLY, 0, sender(action, success, null)));
+    }
+
+    /**
+     * Queues an interaction edit of {@code messageId} in the message's own
+     * lane, replacing any edit of it that hasn't been sent yet. Snowflakes are
+     * unique across channels and messages, so the two kinds of lane never
+     * share a key.
+     */
+    public <T> void edit(long messageId, RestAction<T> action, Consumer<? super Throwable> failure) {
+        submit(messageId, new Task(Kind.EDIT, messageId, sender(action, null, failure)));
+    }
+
+    public void typing(MessageChannel channel) {
+        submit(channel.getIdLong(), new Task(Kind.COSMETIC, 0, sender(channel.sendTyping(), null, null), true));
+    }
+
+    public <T> void cosmetic(MessageChannel channel, RestAction<T> action) {
+        submit(channel.getIdLong(), new Task(Kind.COSMETIC, 0, sender(action, null, null)));
+    }
+
+    void submit(long channelId, Task task) {
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(channelId, id -> new Lane());
+            Task next;
+            synchronized (lane) {
+                if (lane.closed) {
+                    // Evicted between lookup and lock; take the fresh lane.
+                    continue;
+                }
+                if (!lane.offer(task, System.nanoTime())) {
+                    return;
+                }
+                if (lane.sending) {
+                    return;
+                }
+                next = lane.poll();
+                lane.sending = true;
+            }
+            send(channelId, lane, next);
+            return;
+        }
+    }
+
+    /**
+     * Drops lanes that have had nothing to send for a while.
+     */
+    @Scheduled(fixedDelayString = "${bot.outbound.evict.interval.ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        lanes.entrySet().removeIf(entry -> {
+            Lane lane = entry.getValue();
+            synchronized (lane) {
+                if (lane.sending || lane.size() > 0 || now - lane.lastActiveAt < idleEvictNanos) {
+                    return false;
+                }
+                lane.closed = true;
+                return true;
+            }
+        });
+    }
+
+    private void send(long channelId, Lane lane, Task task) {
+        Runnable done = () -> {
+            Task next;
+            synchronized (lane) {
+                lane.lastActiveAt = System.nanoTime();
+                if (task.typing) {
+                    lane.typingQueued = false;
+                    lane.typingSentAt = lane.lastActiveAt;
+                } else if (task.kind == Kind.REPLY) {
+                    // A new message clears the typing indicator, so the next command may show it again.
+                    lane.typingSentAt = lane.lastActiveAt - typingIntervalNanos;
+                }
+                next = lane.poll();
+                lane.sending = next != null;
+            }
+            if (next != null) {
+                send(channelId, lane, next);
+            }
+        };
+        try {
+            task.send.accept(done);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to send {} to channel {}", task.kind, channelId, e);
+            done.run();
+        }
+    }
+
+    private void dropped(Kind kind) {
+        Counter.builder("seasonsbot.outbound.dropped")
+                .description("Discord actions dropped because their channel's queue was full")
+                .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Queues the action and calls the argument once it has succeeded or failed.
+     */
+    private static <T> Consumer<Runnable> sender(RestAction<T> action, Consumer<? super T> success,
+                                                 Consumer<? super Throwable> failure) {
+        return done -> action.queue(result -> {
+            try {
+                if (success != null) {
+                    success.accept(result);
+                }
+            } finally {
+                done.run();
+            }
+        }, error -> {
+            try {
+                if (failure != null) {
+                    failure.accept(error);
+                } else {
+                    logger.warn("Discord action failed: {}", error.getMessage());
+                }
+            } finally {
+                done.run();
+            }
+        });
+    }
+
+    static final class Task {
+        private final Kind kind;
+        private final long messageId;
+        private final Consumer<Runnable> send;
+        private final boolean typing;
+
+        Task(Kind kind, long messageId, Consumer<Runnable> send) {
+            this(kind, messageId, send, false);
+        }
+
+        Task(Kind kind, long messageId, Consumer<Runnable> send, boolean typing) {
+            this.kind = kind;
+            this.messageId = messageId;
+            this.send = send;
+            this.typing = typing;
+        }
+    }
+
+    private final class Lane {
+        private final Deque<Task> replies = new ArrayDeque<>();
+        private final Map<Long, Task> edits = new LinkedHashMap<>();
+        private final Deque<Task> cosmetic = new ArrayDeque<>();
+        private boolean sending;
+        private boolean closed;
+        private boolean typingQueued;
+        private long typingSentAt = System.nanoTime() - typingIntervalNanos;
+        private long lastActiveAt = System.nanoTime();
+
+        /**
+         * @return {@code false} if the task was merged into a queued one or dropped
+         */
+        boolean offer(Task task, long nowNanos) {
+            lastActiveAt = nowNanos;
+            if (task.typing && (typingQueued || nowNanos - typingSentAt < typingIntervalNanos)) {
+                typingMerged.increment();
+                return false;
+            }
+            if (task.kind == Kind.EDIT && edits.containsKey(task.messageId)) {
+                edits.put(task.messageId, task);
+                editsCoalesced.increment();
+                return false;
+            }
+            if (size() >= maxQueuedPerChannel && !makeRoomFor(task)) {
+                return false;
+            }
+            switch (task.kind) {
+                case REPLY:
+                    replies.add(task);
+                    break;
+                case EDIT:
+                    edits.put(task.messageId, task);
+                    break;
+                default:
+                    cosmetic.add(task);
+                    typingQueued |= task.typing;
+            }
+            queued.incrementAndGet();
+            return true;
+        }
+
+        private boolean makeRoomFor(Task task) {
+            if (task.kind != Kind.COSMETIC && !cosmetic.isEmpty()) {
+                Task evicted = cosmetic.pollLast();
+                typingQueued &= !evicted.typing;
+                queued.decrementAndGet();
+                dropped(Kind.COSMETIC);
+                return true;
+            }
+            if (task.kind == Kind.REPLY && replies.size() < maxRepliesPerChannel) {
+                return true;
+            }
+            dropped(task.kind);
+            logger.warn("Outbound queue full, dropping {}", task.kind);
+            return false;
+        }
+
+        Task poll() {
+            Task next = replies.poll();
+            if (next != null && typingQueued) {
+                // Sent after the reply, the indicator would show "typing..." with nothing to follow.
+                cosmetic.removeIf(queuedTask -> queuedTask.typing);
+                typingQueued = false;
+                queued.decrementAndGet();
+                typingMerged.increment();
+            }
+            if (next == null && !edits.isEmpty()) {
+                Iterator<Task> oldest = edits.values().iterator();
+                next = oldest.next();
+                oldest.remove();
+            }
+            if (next == null) {
+                next = cosmetic.poll();
+            }
+            if (next != null) {
+                queued.decrementAndGet();
+            }
+            return next;
+        }
+
+        int size() {
+            return replies.size() + edits.size() + cosmetic.size();
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the NFL schedule endpoints. How long an entry stays
+ * fresh depends on the games it holds: lists with a game in progress go stale
+ * quickly, finished weeks barely ever. Stale entries are served immediately
+ * while a single background refresh replaces them. Keys are the week list,
+ * one entry per week in the feed and one per NFL team, so the cache is
+ * bounded without evicting anything.
+ */
+@Component
+public class ScheduleCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleCache.class);
+
+    private final ApiClient apiClient;
+    private final MeterRegistry meterRegistry;
+    private final Duration liveTtl;
+    private final Duration upcomingTtl;
+    private final Duration finishedTtl;
+    private final Duration gameDuration;
+    private final Map<String, Entry<?>> entries = new ConcurrentHashMap<>();
+    private final Map<String, KeyStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<?>> coldLoads = new ConcurrentHashMap<>();
+    private final Map<String, Counter> requestCounters = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public ScheduleCache(ApiClient apiClient, MeterRegistry meterRegistry,
+                         @Value("${bot.schedule.ttl.live.seconds:30}") long liveTtlSeconds,
+                         @Value("${bot.schedule.ttl.upcoming.seconds:300}") long upcomingTtlSeconds,
+                         @Value("${bot.schedule.ttl.finished.seconds:3600}") long finishedTtlSeconds,
+                         @Value("${bot.schedule.game.duration.hours:4}") long gameDurationHours) {
+        this.apiClient = apiClient;
+        this.meterRegistry = meterRegistry;
+        this.liveTtl = Duration.ofSeconds(liveTtlSeconds);
+        this.upcomingTtl = Duration.ofSeconds(upcomingTtlSeconds);
+        this.finishedTtl = Duration.ofSeconds(finishedTtlSeconds);
+        this.gameDuration = Duration.ofHours(gameDurationHours);
+    }
+
+    public List<Integer> getNflWeeks() {
+        return get("weeks", "weeks", apiClient::getNflWeeksAsync, weeks -> upcomingTtl);
+    }
+
+    public List<Game> getGamesByWeek(int week) {
+        return get("games", "games:" + week, () -> apiClient.getNflGamesByWeekAsync(week), this::ttlFor);
+    }
+
+    /**
+     * @param team one of the {@link NflTeams} names; only those are cached, so
+     *             the number of team entries is fixed whatever users type
+     */
+    public List<Game> getTeamSchedule(String team) {
+        if (NflTeams.id(team) == NflTeams.UNKNOWN) {
+            throw new IllegalArgumentException("Not an NFL team: " + team);
+        }
+        return get("schedule", "schedule:" + team, () -> apiClient.getTeamScheduleAsync(team), this::ttlFor);
+    }
+
+    /**
+     * Warms every week's games in the background so the first user to ask
+     * doesn't pay for the cold fetch.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        apiClient.getNflWeeksAsync()
+                .thenAccept(response -> {
+                    List<Integer> weeks = response.getBody() == null ? List.of() : response.getBody();
+                    store("weeks", List.copyOf(weeks), upcomingTtl);
+                    for (int week : weeks) {
+                        refresh("games", "games:" + week, () -> apiClient.getNflGamesByWeekAsync(week), this::ttlFor);
+                    }
+                })
+                .exceptionally(error -> {
+                    logger.warn("Failed to warm schedule cache", error);
+                    return null;
+                });
+    }
+
+    /**
+     * Swaps the moved games into every cached list that holds them, so week
+     * and team embeds show the polled line without a second request. Entries
+     * keep their original fetch time and TTL.
+     */
+    @EventListener
+    public void onOddsChanged(OddsChangedEvent event) {
+        Map<Integer, Game> moved = new HashMap<>();
+        event.changes().forEach(change -> moved.put(change.game().getId(), change.game()));
+        entries.replaceAll((key, entry) -> {
+            if (!key.startsWith("games:") && !key.startsWith("schedule:")) {
+                return entry;
+            }
+            @SuppressWarnings("unchecked")
+            List<Game> games = (List<Game>) entry.value;
+            if (games.stream().noneMatch(game -> moved.containsKey(game.getId()))) {
+                return entry;
+            }
+            List<Game> patched = games.stream().map(game -> moved.getOrDefault(game.getId(), game)).toList();
+            version.incrementAndGet();
+            return new Entry<>(patched, entry.fetchedAt, entry.ttl);
+        });
+    }
+
+    /**
+     * Increments whenever any entry is replaced, so derived indexes can tell
+     * cheaply whether they need rebuilding.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * The games of every week currently stored, fresh or stale, keyed by
+     * week. Unlike {@link #getGamesByWeek(int)} this is not counted as a read
+     * and never loads or refreshes anything.
+     */
+    Map<Integer, List<Game>> gamesByWeekSnapshot() {
+        Map<Integer, List<Game>> snapshot = new HashMap<>();
+        entries.forEach((key, entry) -> {
+            if (key.startsWith("games:")) {
+                @SuppressWarnings("unchecked")
+                List<Game> games = (List<Game>) entry.value;
+                snapshot.put(Integer.parseInt(key.substring("games:".length())), games);
+            }
+        });
+        return Map.copyOf(snapshot);
+    }
+
+    /**
+     * Per-key freshness and hit counts, keyed by cache key.
+     */
+    public Map<String, Map<String, Object>> describe() {
+        Map<String, Map<String, Object>> description = new LinkedHashMap<>();
+        Instant now = Instant.now();
+        entries.forEach((key, entry) -> {
+            KeyStats keyStats = statsFor(key);
+            description.put(key, Map.of(
+                    "ageSeconds", Duration.between(entry.fetchedAt, now).toSeconds(),
+                    "ttlSeconds", entry.ttl.toSeconds(),
+                    "fresh", entry.isFresh(now),
+                    "hits", keyStats.hits.sum(),
+                    "staleHits", keyStats.staleHits.sum(),
+                    "misses", keyStats.misses.sum()));
+        });
+        return description;
+    }
+
+    private <T> T get(String endpoint, String key, Supplier<CompletableFuture<ResponseEntity<T>>> loader,
+                      Function<T, Duration> ttlFor) {
+        @SuppressWarnings("unchecked")
+        Entry<T> entry = (Entry<T>) entries.get(key);
+        KeyStats keyStats = statsFor(key);
+        Instant now = Instant.now();
+
+        if (entry != null && entry.isFresh(now)) {
+            keyStats.hits.increment();
+            count(endpoint, "hit");
+            return entry.value;
+        }
+        if (entry != null) {
+            keyStats.staleHits.increment();
+            count(endpoint, "stale");
+            if (keyStats.refreshing.compareAndSet(false, true)) {
+                refresh(endpoint, key, loader, ttlFor)
+                        .whenComplete((value, error) -> keyStats.refreshing.set(false));
+            }
+            return entry.value;
+        }
+
+        keyStats.misses.increment();
+        count(endpoint, "miss");
+        CompletableFuture<T> created = new CompletableFuture<>();
+        @SuppressWarnings("unchecked")
+        CompletableFuture<T> load = (CompletableFuture<T>) coldLoads.computeIfAbsent(key, k -> created);
+        if (load == created) {
+            // Concurrent cold misses for the same key share this one fetch.
+            refresh(endpoint, key, loader, ttlFor).whenComplete((value, error) -> {
+                coldLoads.remove(key, created);
+                if (error != null) {
+                    if (!entries.containsKey(key)) {
+                        stats.remove(key);
+                    }
+                    created.completeExceptionally(error);
+                } else {
+                    created.complete(value);
+                }
+            });
+        }
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private KeyStats statsFor(String key) {
+        return stats.computeIfAbsent(key, k -> new KeyStats());
+    }
+
+    private <T> CompletableFuture<T> refresh(String endpoint, String key,
+                                             Supplier<CompletableFuture<ResponseEntity<T>>> loader,
+                                             Function<T, Duration> ttlFor) {
+        return loader.get().thenApply(response -> {
+            T value = response.getBody();
+            if (value instanceof List<?> list) {
+                @SuppressWarnings("unchecked")
+                T copy = (T) List.copyOf(list);
+                value = copy;
+            }
+            if (value != null) {
+                store(key, value, ttlFor.apply(value));
+            }
+            return value;
+        }).whenComplete((value, error) -> {
+            if (error != null) {
+                logger.warn("Failed to refresh {} entry {}", endpoint, key, error);
+            }
+        });
+    }
+
+    private <T> void store(String key, T value, Duration ttl) {
+        entries.put(key, new Entry<>(value, Instant.now(), ttl));
+        version.incrementAndGet();
+    }
+
+    private Duration ttlFor(List<Game> games) {
+        Instant now = Instant.now();
+        boolean upcoming = false;
+        for (Game game : games) {
+            Instant start = game.getCommenceTime();
+            if (start == null) {
+                continue;
+            }
+            if (!now.isBefore(start) && now.isBefore(start.plus(gameDuration))) {
+                return liveTtl;
+            }
+            if (now.isBefore(start)) {
+                upcoming = true;
+            }
+        }
+        return upcoming ? upcomingTtl : finishedTtl;
+    }
+
+    private void count(String endpoint, String result) {
+        requestCounters.computeIfAbsent(endpoint + ":" + result, k -> Counter.builder("seasonsbot.schedule.cache.requests")
+                .tag("endpoint", endpoint)
+                .tag("result", result)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    private static final class KeyStats {
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder staleHits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final Instant fetchedAt;
+        private final Duration ttl;
+
+        Entry(T value, Instant fetchedAt, Duration ttl) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+            this.ttl = ttl;
+        }
+
+        boolean isFresh(Instant now) {
+            return now.isBefore(fetchedAt.plus(ttl));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.dialodds.seasonsbot;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Exposes per-key freshness of the schedule cache at /actuator/schedulecache.
+ */
+@Component
+@Endpoint(id = "schedulecache")
+public class ScheduleCacheEndpoint {
+
+    private final ScheduleCache scheduleCache;
+
+    public ScheduleCacheEndpoint(ScheduleCache scheduleCache) {
+        this.scheduleCache = scheduleCache;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> entries() {
+        return scheduleCache.describe();
+    }
+}
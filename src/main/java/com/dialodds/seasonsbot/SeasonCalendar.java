@@ -0,0 +1,204 @@
+package com.dialodds.seasonsbot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Knows where each NFL week starts and keeps an immutable week-to-games and
+ * team-to-games index over the cached schedule. The season start is either
+ * configured or derived from the earliest kickoff of the first week in the
+ * feed, and re-derived whenever the index is rebuilt so a new season's
+ * schedule moves it.
+ * The index is rebuilt from the weeks already stored in the schedule cache,
+ * keyed by the week the backend listed each game under, and only when the
+ * cache has changed, so lookups are plain map reads.
+ */
+@Component
+public class SeasonCalendar {
+
+    private static final ZoneId NFL_ZONE = ZoneId.of("America/New_York");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+
+    private final ScheduleCache scheduleCache;
+    private final int regularSeasonWeeks;
+    private final Duration indexMaxAge;
+    private final LocalDate configuredStart;
+    private volatile LocalDate seasonStart;
+    private volatile Index index;
+
+    public SeasonCalendar(ScheduleCache scheduleCache,
+                          @Value("${bot.season.start.date:}") String seasonStartDate,
+                          @Value("${bot.season.weeks:18}") int regularSeasonWeeks,
+                          @Value("${bot.season.index.max.age.seconds:300}") long indexMaxAgeSeconds) {
+        this.scheduleCache = scheduleCache;
+        this.configuredStart = seasonStartDate.isBlank() ? null : LocalDate.parse(seasonStartDate.trim());
+        this.seasonStart = configuredStart;
+        this.regularSeasonWeeks = regularSeasonWeeks;
+        this.indexMaxAge = Duration.ofSeconds(indexMaxAgeSeconds);
+    }
+
+    /**
+     * @return the 1-based week a kickoff falls in, or 0 if unknown or before the season
+     */
+    public int weekOf(Instant kickoff) {
+        if (kickoff == null) {
+            return 0;
+        }
+        long days = kickoff.atZone(NFL_ZONE).toLocalDate().toEpochDay() - seasonStart().toEpochDay();
+        return days < 0 ? 0 : (int) (days / 7) + 1;
+    }
+
+    public int currentWeek() {
+        long days = LocalDate.now(NFL_ZONE).toEpochDay() - seasonStart().toEpochDay();
+        if (days < 0) {
+            return 0;
+        }
+        return Math.min((int) (days / 7) + 1, regularSeasonWeeks);
+    }
+
+    public List<Game> gamesForWeek(int week) {
+        // Reading through the cache keeps this week's entry revalidating.
+        scheduleCache.getGamesByWeek(week);
+        return index().byWeek.getOrDefault(week, List.of());
+    }
+
+    public List<Game> gamesForTeam(String team) {
+        return index().byTeam.getOrDefault(teamKey(team), List.of());
+    }
+
+    /**
+     * Weeks nobody has read yet are not in the index, so a miss loads every
+     * week missing from the cache before giving up.
+     *
+     * @return the week of a scheduled game, or 0 if the game is not in the schedule
+     */
+    public int weekOfGame(int gameId) {
+        Integer week = index().weekByGame.get(gameId);
+        if (week != null) {
+            return week;
+        }
+        Map<Integer, List<Game>> indexed = index().byWeek;
+        boolean loaded = false;
+        for (int missing : scheduleCache.getNflWeeks()) {
+            if (!indexed.containsKey(missing)) {
+                scheduleCache.getGamesByWeek(missing);
+                loaded = true;
+            }
+        }
+        return loaded ? index().weekByGame.getOrDefault(gameId, 0) : 0;
+    }
+
+    private LocalDate seasonStart() {
+        if (configuredStart != null) {
+            return configuredStart;
+        }
+        // Rebuilding the index, if the cache has changed, re-derives the start.
+        index();
+        LocalDate start = seasonStart;
+        if (start == null) {
+            synchronized (this) {
+                if (seasonStart == null) {
+                    seasonStart = deriveSeasonStart();
+                }
+                start = seasonStart;
+            }
+        }
+        return start;
+    }
+
+    private LocalDate deriveSeasonStart() {
+        List<Integer> weeks = scheduleCache.getNflWeeks();
+        if (weeks == null || weeks.isEmpty()) {
+            throw new IllegalStateException("Cannot derive the season start: the schedule has no weeks");
+        }
+        int firstWeek = weeks.stream().min(Integer::compare).get();
+        LocalDate start = earliestKickoff(scheduleCache.getGamesByWeek(firstWeek));
+        if (start == null) {
+            throw new IllegalStateException("Cannot derive the season start: week "
+                    + firstWeek + " has no kickoff times");
+        }
+        return start;
+    }
+
+    private static LocalDate earliestKickoff(List<Game> games) {
+        return games.stream()
+                .map(Game::getCommenceTime)
+                .filter(time -> time != null)
+                .min(Comparator.naturalOrder())
+                .map(time -> time.atZone(NFL_ZONE).toLocalDate())
+                .orElse(null);
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current != null && current.isCurrent(scheduleCache.version(), indexMaxAge)) {
+            return current;
+        }
+        synchronized (this) {
+            current = index;
+            if (current == null || !current.isCurrent(scheduleCache.version(), indexMaxAge)) {
+                current = buildIndex();
+                index = current;
+            }
+            return current;
+        }
+    }
+
+    private Index buildIndex() {
+        long version = scheduleCache.version();
+        // A snapshot rather than getGamesByWeek: rebuilding must not count as reads or start refreshes.
+        Map<Integer, List<Game>> byWeek = scheduleCache.gamesByWeekSnapshot();
+        Map<Integer, Game> gamesById = new LinkedHashMap<>();
+        Map<Integer, Integer> weekByGame = new HashMap<>();
+        byWeek.forEach((week, games) -> games.forEach(game -> {
+            gamesById.putIfAbsent(game.getId(), game);
+            weekByGame.putIfAbsent(game.getId(), week);
+        }));
+
+        List<Game> allGames = new ArrayList<>(gamesById.values());
+        allGames.sort(Comparator.comparing(Game::getCommenceTime, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        Map<String, List<Game>> byTeam = new HashMap<>();
+        for (Game game : allGames) {
+            byTeam.computeIfAbsent(teamKey(game.getHomeTeam()), team -> new ArrayList<>()).add(game);
+            byTeam.computeIfAbsent(teamKey(game.getAwayTeam()), team -> new ArrayList<>()).add(game);
+        }
+        byTeam.replaceAll((team, games) -> List.copyOf(games));
+
+        if (configuredStart == null && !byWeek.isEmpty()) {
+            // Week one may not be cached yet; step back from the earliest week that is.
+            int firstWeek = byWeek.keySet().stream().min(Integer::compare).get();
+            LocalDate start = earliestKickoff(byWeek.get(firstWeek));
+            if (start != null) {
+                seasonStart = start.minusWeeks(Math.max(0, firstWeek - 1));
+            }
+        }
+
+        return new Index(version, Instant.now(), byWeek, Map.copyOf(byTeam), Map.copyOf(weekByGame));
+    }
+
+    private static String teamKey(String team) {
+        return team == null ? "" : NON_ALPHANUMERIC.matcher(team.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+
+    private record Index(long version, Instant builtAt, Map<Integer, List<Game>> byWeek,
+                         Map<String, List<Game>> byTeam, Map<Integer, Integer> weekByGame) {
+
+        boolean isCurrent(long currentVersion, Duration maxAge) {
+            return version == currentVersion && Instant.now().isBefore(builtAt.plus(maxAge));
+        }
+    }
+}
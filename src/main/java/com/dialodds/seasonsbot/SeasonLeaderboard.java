@@ -0,0 +1,251 @@
+package com.dialodds.seasonsbot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One season's standings as an order-statistic treap ordered by coins
+ * (highest first, ties broken by user ID). Every node knows its subtree size,
+ * so balance changes, rank lookups and "the k-th player" all take O(log n)
+ * instead of re-sorting the whole season.
+ */
+public final class SeasonLeaderboard {
+
+    private final Map<Integer, Node> nodesByUser = new HashMap<>();
+    private final Map<String, Integer> userIdsByDiscordId = new HashMap<>();
+    private Node root;
+
+    /**
+     * Brings the standings in line with a full user list, touching only the
+     * players whose balance or name changed and dropping those who left.
+     */
+    public void sync(List<User> users) {
+        Set<Integer> present = new HashSet<>();
+        for (User user : users) {
+            present.add(user.getId());
+            upsert(user);
+        }
+        retainOnly(present);
+    }
+
+    /**
+     * Adds the user or updates their balance, doing nothing if it is unchanged.
+     */
+    public synchronized void upsert(User user) {
+        Node existing = nodesByUser.get(user.getId());
+        if (existing == null || existing.coins != user.getCoins()
+                || !Objects.equals(existing.username, user.getUsername())) {
+            put(user.getId(), user.getDiscordId(), user.getUsername(), user.getCoins());
+        }
+    }
+
+    public synchronized void retainOnly(Set<Integer> userIds) {
+        new ArrayList<>(nodesByUser.keySet()).stream()
+                .filter(userId -> !userIds.contains(userId))
+                .forEach(this::remove);
+    }
+
+    public synchronized void put(int userId, String discordId, String username, int coins) {
+        remove(userId);
+        Node node = new Node(userId, discordId, username, coins);
+        root = insert(root, node);
+        nodesByUser.put(userId, node);
+        if (discordId != null) {
+            userIdsByDiscordId.put(discordId, userId);
+        }
+    }
+
+    /**
+     * @return {@code false} if the user is not on this leaderboard
+     */
+    public synchronized boolean applyDelta(int userId, int delta) {
+        Node node = nodesByUser.get(userId);
+        if (node == null) {
+            return false;
+        }
+        put(userId, node.discordId, node.username, node.coins + delta);
+        return true;
+    }
+
+    public synchronized void remove(int userId) {
+        Node node = nodesByUser.remove(userId);
+        if (node == null) {
+            return;
+        }
+        root = delete(root, node);
+        if (node.discordId != null) {
+            userIdsByDiscordId.remove(node.discordId, userId);
+        }
+    }
+
+    public synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * @return the user's 1-based rank, or 0 if they are not on this leaderboard
+     */
+    public synchronized int rankOf(int userId) {
+        Node target = nodesByUser.get(userId);
+        if (target == null) {
+            return 0;
+        }
+        int rank = 1;
+        Node node = root;
+        while (node != target) {
+            if (compare(target, node) < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank + size(node.left);
+    }
+
+    public synchronized Standing standingOf(String discordId) {
+        Integer userId = userIdsByDiscordId.get(discordId);
+        if (userId == null) {
+            return null;
+        }
+        Node node = nodesByUser.get(userId);
+        return new Standing(rankOf(userId), node.userId, node.discordId, node.username, node.coins);
+    }
+
+    public List<Standing> top(int limit) {
+        return page(0, limit);
+    }
+
+    /**
+     * @param offset zero-based index of the first standing to return
+     */
+    public synchronized List<Standing> page(int offset, int limit) {
+        List<Standing> standings = new ArrayList<>();
+        int end = Math.min(size(root), offset + limit);
+        for (int index = Math.max(0, offset); index < end; index++) {
+            Node node = select(index);
+            standings.add(new Standing(index + 1, node.userId, node.discordId, node.username, node.coins));
+        }
+        return standings;
+    }
+
+    private Node select(int index) {
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private static Node insert(Node tree, Node node) {
+        if (tree == null) {
+            return node;
+        }
+        if (node.priority > tree.priority) {
+            Node[] halves = split(tree, node);
+            node.left = halves[0];
+            node.right = halves[1];
+            return update(node);
+        }
+        if (compare(node, tree) < 0) {
+            tree.left = insert(tree.left, node);
+        } else {
+            tree.right = insert(tree.right, node);
+        }
+        return update(tree);
+    }
+
+    private static Node delete(Node tree, Node node) {
+        if (tree == node) {
+            return merge(tree.left, tree.right);
+        }
+        if (compare(node, tree) < 0) {
+            tree.left = delete(tree.left, node);
+        } else {
+            tree.right = delete(tree.right, node);
+        }
+        return update(tree);
+    }
+
+    /**
+     * Splits a tree into the nodes ordered before {@code pivot} and the rest.
+     */
+    private static Node[] split(Node tree, Node pivot) {
+        if (tree == null) {
+            return new Node[2];
+        }
+        if (compare(tree, pivot) < 0) {
+            Node[] halves = split(tree.right, pivot);
+            tree.right = halves[0];
+            halves[0] = update(tree);
+            return halves;
+        }
+        Node[] halves = split(tree.left, pivot);
+        tree.left = halves[1];
+        halves[1] = update(tree);
+        return halves;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static int compare(Node a, Node b) {
+        int byCoins = Integer.compare(b.coins, a.coins);
+        return byCoins != 0 ? byCoins : Integer.compare(a.userId, b.userId);
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    public record Standing(int rank, int userId, String discordId, String username, int coins) {
+    }
+
+    private static final class Node {
+        private final int userId;
+        private final String discordId;
+        private final String username;
+        private final int coins;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        Node(int userId, String discordId, String username, int coins) {
+            this.userId = userId;
+            this.discordId = discordId;
+            this.username = username;
+            this.coins = coins;
+        }
+    }
+}
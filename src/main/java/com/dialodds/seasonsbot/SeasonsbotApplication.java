@@ -3,10 +3,17 @@ package com.dialodds.seasonsbot;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @SpringBootApplication
+@EnableScheduling
 public class SeasonsbotApplication {
 
     public static void main(String[] args) {
@@ -19,13 +26,23 @@ public class SeasonsbotApplication {
     }
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public HttpClient apiHttpClient(@Value("${api.http.connect.timeout.ms:3000}") long connectTimeoutMs,
+                                    @Value("${api.http.version:HTTP_2}") HttpClient.Version version) {
+        // A single shared client keeps one connection pool for both the blocking and async paths.
+        return HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
     }
 
     @Bean
-    public ApiClient apiClient(RestTemplate restTemplate) {
-        String baseUrl = System.getProperty("API_BASE_URL");
-        return new ApiClient(restTemplate, baseUrl);
+    public RestTemplate restTemplate(HttpClient apiHttpClient,
+                                     @Value("${api.http.read.timeout.ms:10000}") long readTimeoutMs) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(apiHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(CorrelationId.restTemplateInterceptor());
+        return restTemplate;
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Counts gateway events per shard so an overloaded shard shows up as a
+ * diverging event rate. In single-connection mode everything is shard 0.
+ */
+@Component
+public class ShardEventMetrics implements EventListener {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+    public ShardEventMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onEvent(GenericEvent event) {
+        int shardId = event.getJDA().getShardInfo().getShardId();
+        counters.computeIfAbsent(shardId, id -> Counter.builder("seasonsbot.gateway.events")
+                .description("Gateway events received")
+                .tag("shard", String.valueOf(id))
+                .register(meterRegistry))
+                .increment();
+    }
+}
@@ -0,0 +1,64 @@
+package com.dialodds.seasonsbot;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller
+ * starts the call and everyone who asks while it is still running gets the
+ * same future. Nothing is cached; once the call completes the next caller
+ * starts a fresh one.
+ */
+class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+
+    CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            joined.increment();
+            return existing;
+        }
+        started.increment();
+        CompletableFuture<V> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        // Removed before completing, so callbacks that call again start a new flight.
+        result.whenComplete((value, error) -> {
+            inFlight.remove(key, flight);
+            if (error != null) {
+                flight.completeExceptionally(error);
+            } else {
+                flight.complete(value);
+            }
+        });
+        return flight;
+    }
+
+    /**
+     * @return how many calls were actually started
+     */
+    long started() {
+        return started.sum();
+    }
+
+    /**
+     * @return how many callers were handed an already running call
+     */
+    long joined() {
+        return joined.sum();
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,139 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Maps Discord IDs to backend user IDs so commands don't POST to /api/users on
+ * every invocation. Concurrent lookups for the same Discord ID share a single
+ * in-flight request, and entries are dropped when the backend stops
+ * recognising the user.
+ */
+@Component
+public class UserIdCache {
+
+    private final ApiClient apiClient;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserIdCache(ApiClient apiClient, MeterRegistry meterRegistry,
+                       @Value("${bot.user.cache.max.size:10000}") int maxSize,
+                       @Value("${bot.user.cache.ttl.minutes:60}") long ttlMinutes) {
+        this.apiClient = apiClient;
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hits = Counter.builder("seasonsbot.usercache.hits").register(meterRegistry);
+        this.misses = Counter.builder("seasonsbot.usercache.misses").register(meterRegistry);
+        Gauge.builder("seasonsbot.usercache.size", this, UserIdCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Resolves the backend user ID, creating the user if needed. The future
+     * completes with {@code null} if the backend returned an empty body.
+     */
+    public CompletableFuture<Integer> resolveAsync(String discordId, String username) {
+        long now = System.nanoTime();
+        CompletableFuture<Integer> created = new CompletableFuture<>();
+        Entry candidate = new Entry(created, now + ttlNanos);
+
+        synchronized (entries) {
+            Entry existing = entries.get(discordId);
+            if (existing != null && existing.isUsable(now)) {
+                hits.increment();
+                return existing.userId;
+            }
+            entries.put(discordId, candidate);
+        }
+        misses.increment();
+
+        apiClient.createUserAsync(discordId, username)
+                .thenApply(ResponseEntity::getBody)
+                .whenComplete((userId, error) -> {
+                    if (error != null || userId == null) {
+                        remove(discordId, candidate);
+                    }
+                    if (error != null) {
+                        created.completeExceptionally(error);
+                    } else {
+                        created.complete(userId);
+                    }
+                });
+        return created;
+    }
+
+    public Integer resolve(String discordId, String username) {
+        try {
+            return resolveAsync(discordId, username).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidate(String discordId) {
+        synchronized (entries) {
+            entries.remove(discordId);
+        }
+    }
+
+    /**
+     * Runs a user-scoped call and drops the cached ID if the backend answers 404.
+     */
+    public <T> T invalidateOnNotFound(String discordId, Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (HttpClientErrorException.NotFound e) {
+            invalidate(discordId);
+            throw e;
+        }
+    }
+
+    public <T> CompletableFuture<T> invalidateOnNotFound(String discordId, CompletableFuture<T> call) {
+        return call.whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof HttpClientErrorException.NotFound) {
+                invalidate(discordId);
+            }
+        });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void remove(String discordId, Entry expected) {
+        synchronized (entries) {
+            entries.remove(discordId, expected);
+        }
+    }
+
+    private record Entry(CompletableFuture<Integer> userId, long expiresAt) {
+
+        boolean isUsable(long now) {
+            return now - expiresAt < 0 && !userId.isCompletedExceptionally();
+        }
+    }
+}
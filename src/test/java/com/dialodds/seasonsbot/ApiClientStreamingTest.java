@@ -0,0 +1,126 @@
+package com.dialodds.seasonsbot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ApiClientStreamingTest {
+
+    private static final String BASE_URL = "http://api.test";
+
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+    private ApiClient apiClient;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ApiResilience resilience = new ApiResilience(meterRegistry, 20, 10, 50, 30, 2, 10, Map.of(), 500, 750);
+        apiClient = new ApiClient(restTemplate, HttpClient.newHttpClient(), new ObjectMapper(), resilience,
+                meterRegistry, BASE_URL, 1000, 4, false, 512);
+    }
+
+    @Test
+    void stopsReadingOnceTheSinkIsSatisfied() {
+        server.expect(requestTo(BASE_URL + "/api/users/seasons/7"))
+                .andRespond(withSuccess(season(1000), MediaType.APPLICATION_JSON));
+
+        List<User> users = new ArrayList<>();
+        int read = apiClient.streamUsersBySeason(7, user -> users.add(user) && users.size() < 10);
+
+        assertEquals(10, read);
+        assertEquals(10, users.size());
+        User tenth = users.get(9);
+        assertEquals(10, tenth.getId());
+        assertEquals("d10", tenth.getDiscordId());
+        assertEquals("user10", tenth.getUsername());
+        assertEquals(100, tenth.getCoins());
+    }
+
+    /**
+     * Bytes allocated on this thread for a synthetic 50k-user season, read
+     * as a whole list through the message converters, streamed in full, and
+     * streamed until the top ten are in. Each is measured after a warm-up run.
+     */
+    @Test
+    void streamingTheTopTenAllocatesAFractionOfAFullParse() {
+        byte[] season = season(50_000).getBytes(StandardCharsets.UTF_8);
+        server.expect(ExpectedCount.manyTimes(), requestTo(BASE_URL + "/api/users/seasons/7"))
+                .andRespond(withSuccess(season, MediaType.APPLICATION_JSON));
+
+        long list = allocatedBy(() -> restTemplate.exchange(BASE_URL + "/api/users/seasons/7", HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<User>>() {}));
+        long streamedAll = allocatedBy(() -> apiClient.streamUsersBySeason(7, user -> true));
+        long streamedTopTen = allocatedBy(() -> {
+            int[] seen = {0};
+            apiClient.streamUsersBySeason(7, user -> ++seen[0] < 10);
+        });
+
+        System.out.printf("50k-user season (%d KB): list %d KB, streamed %d KB, streamed top 10 %d KB%n",
+                season.length / 1024, list / 1024, streamedAll / 1024, streamedTopTen / 1024);
+        assertTrue(streamedAll < list, "streaming every user should allocate less than the full list");
+        assertTrue(streamedTopTen * 10 < list, "streaming the top 10 should allocate under a tenth of the full list");
+    }
+
+    @Test
+    void readsAnEmptyArray() {
+        server.expect(requestTo(BASE_URL + "/api/users/seasons/7"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        assertEquals(0, apiClient.streamUsersBySeason(7, user -> fail("no users expected")));
+    }
+
+    @Test
+    void surfacesClientErrors() {
+        server.expect(requestTo(BASE_URL + "/api/bets/users/1/seasons/7"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        assertThrows(HttpClientErrorException.NotFound.class,
+                () -> apiClient.streamUserBets(1, 7, bet -> true));
+    }
+
+    private static String season(int users) {
+        StringBuilder body = new StringBuilder("[");
+        for (int id = 1; id <= users; id++) {
+            body.append(id == 1 ? "" : ",")
+                    .append("{\"id\":").append(id)
+                    .append(",\"discordId\":\"d").append(id)
+                    .append("\",\"username\":\"user").append(id)
+                    .append("\",\"coins\":").append(id * 10)
+                    .append(",\"seasons\":[{\"id\":1}]}");
+        }
+        return body.append("]").toString();
+    }
+
+    private static long allocatedBy(Runnable run) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        run.run();
+        long before = threads.getThreadAllocatedBytes(thread);
+        run.run();
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
+}
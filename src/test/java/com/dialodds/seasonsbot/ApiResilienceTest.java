@@ -0,0 +1,66 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiResilienceTest {
+
+    private static final String NFL_URL = "http://backend/api/nfl/games/1";
+
+    private final List<CompletableFuture<String>> attempts = new CopyOnWriteArrayList<>();
+
+    private ApiResilience resilience(int nflBulkhead) {
+        return new ApiResilience(new SimpleMeterRegistry(), 20, 10, 50, 30, 2, 10,
+                Map.of("nfl", nflBulkhead), 0, 20);
+    }
+
+    private CompletableFuture<String> attempt() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        attempts.add(future);
+        return future;
+    }
+
+    @Test
+    void skipsTheHedgeWhenTheBulkheadIsFull() throws Exception {
+        ApiResilience resilience = resilience(1);
+
+        CompletableFuture<String> call = resilience.callAsync(NFL_URL, true, this::attempt);
+        Thread.sleep(200);
+
+        assertEquals(1, attempts.size());
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> resilience.callAsync(NFL_URL, true, this::attempt).get());
+        assertInstanceOf(ApiUnavailableException.class, rejected.getCause());
+
+        attempts.get(0).complete("slow");
+        assertEquals("slow", call.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancelsTheSlowerAttemptAndFreesBothSlots() throws Exception {
+        ApiResilience resilience = resilience(2);
+
+        CompletableFuture<String> call = resilience.callAsync(NFL_URL, true, this::attempt);
+        while (attempts.size() < 2) {
+            Thread.sleep(5);
+        }
+        attempts.get(1).complete("hedge");
+
+        assertEquals("hedge", call.get(1, TimeUnit.SECONDS));
+        assertTrue(attempts.get(0).isCancelled());
+
+        // Both slots are free again, so two more calls are let through at once.
+        resilience.callAsync(NFL_URL, false, this::attempt);
+        resilience.callAsync(NFL_URL, false, this::attempt);
+        assertEquals(4, attempts.size());
+    }
+}
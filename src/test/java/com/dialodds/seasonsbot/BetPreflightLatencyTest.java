@@ -0,0 +1,128 @@
+package com.dialodds.seasonsbot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the !bet pre-flight lookups issued one after another with the
+ * concurrent shape {@code handlePlaceBet} uses, against a stub backend that
+ * answers every request after a fixed delay.
+ */
+class BetPreflightLatencyTest {
+
+    private static final long BACKEND_DELAY_MS = 30;
+    private static final int RUNS = 20;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private ApiClient apiClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Without it the stub's separate header and body writes add a delayed-ACK stall to every response.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        serverThreads = Executors.newFixedThreadPool(8);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/users", exchange -> respond(exchange,
+                exchange.getRequestURI().getPath().endsWith("/coins") ? "500" : "42"));
+        server.createContext("/api/nfl/games/id", exchange -> respond(exchange,
+                "{\"id\":1985,\"commence_time\":\"2030-09-05T00:20:00Z\"}"));
+        server.setExecutor(serverThreads);
+        server.start();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ApiResilience resilience = new ApiResilience(meterRegistry, 20, 10, 50, 30, 2, 10, Map.of(), 500, 0);
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        apiClient = new ApiClient(new RestTemplate(), httpClient, new ObjectMapper(), resilience, meterRegistry,
+                "http://127.0.0.1:" + server.getAddress().getPort(), 5000, 8, false, 512);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void concurrentLookupsBeatSequentialOnes() {
+        // Warm up connections and class loading before timing anything.
+        sequential(0);
+        concurrent(0);
+
+        long[] sequential = new long[RUNS];
+        long[] concurrent = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            sequential[run] = time(run + 1, this::sequential);
+            concurrent[run] = time(run + 1, this::concurrent);
+        }
+
+        System.out.printf("bet pre-flight, %d ms backend: sequential p50=%d ms p99=%d ms, "
+                        + "concurrent p50=%d ms p99=%d ms%n", BACKEND_DELAY_MS,
+                percentile(sequential, 50), percentile(sequential, 99),
+                percentile(concurrent, 50), percentile(concurrent, 99));
+        // Three round trips against two: user and game overlap, the balance waits on the user.
+        assertTrue(percentile(concurrent, 50) < percentile(sequential, 50),
+                "concurrent p50 should be below sequential p50");
+    }
+
+    private void sequential(int run) {
+        Integer userId = apiClient.createUserAsync("d" + run, "user" + run).join().getBody();
+        apiClient.getGameByIdAsync(1985 + run).join();
+        apiClient.getUserCoinsAsync(userId, 1).join();
+    }
+
+    private void concurrent(int run) {
+        CompletableFuture<?> game = apiClient.getGameByIdAsync(1985 + run);
+        CompletableFuture<?> coins = apiClient.createUserAsync("d" + run, "user" + run)
+                .thenCompose(user -> apiClient.getUserCoinsAsync(user.getBody(), 1));
+        CompletableFuture.allOf(game, coins).join();
+    }
+
+    private static long time(int run, IntConsumer preflight) {
+        long start = System.nanoTime();
+        preflight.accept(run);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static long percentile(long[] samples, int percentile) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        try {
+            Thread.sleep(BACKEND_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.dialodds.seasonsbot;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_NANOS = 1_000;
+
+    private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, OPEN_NANOS, 2);
+
+    @Test
+    void opensOnceTheFailureRateIsReached() {
+        record(true, 0);
+        record(true, 0);
+        record(false, 0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state(0));
+
+        record(false, 0);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state(0));
+        assertNull(breaker.tryAcquire(OPEN_NANOS - 1));
+    }
+
+    @Test
+    void closesAfterSuccessfulProbes() {
+        trip();
+
+        CircuitBreaker.Permit first = breaker.tryAcquire(OPEN_NANOS);
+        CircuitBreaker.Permit second = breaker.tryAcquire(OPEN_NANOS);
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(breaker.tryAcquire(OPEN_NANOS), "only two probes are allowed while half-open");
+
+        breaker.onResult(first, true, OPEN_NANOS);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state(OPEN_NANOS));
+        breaker.onResult(second, true, OPEN_NANOS);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state(OPEN_NANOS));
+    }
+
+    @Test
+    void reopensWhenAProbeFails() {
+        trip();
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire(OPEN_NANOS);
+        breaker.onResult(probe, false, OPEN_NANOS);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state(OPEN_NANOS));
+        assertNull(breaker.tryAcquire(OPEN_NANOS + 1));
+    }
+
+    @Test
+    void ignoresResultsFromBeforeTheLastTransition() {
+        CircuitBreaker.Permit stale = breaker.tryAcquire(0);
+        trip();
+        CircuitBreaker.Permit probe = breaker.tryAcquire(OPEN_NANOS);
+
+        breaker.onResult(stale, true, OPEN_NANOS);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state(OPEN_NANOS));
+        assertNotNull(probe);
+    }
+
+    private void trip() {
+        for (int i = 0; i < 4; i++) {
+            record(false, 0);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state(0));
+    }
+
+    private void record(boolean success, long now) {
+        breaker.onResult(breaker.tryAcquire(now), success, now);
+    }
+}
@@ -0,0 +1,46 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CommandMetrics metrics = new CommandMetrics(registry);
+
+    @Test
+    void tagsCaughtErrorsWithTheirExceptionType() {
+        CommandMetrics.Invocation invocation = metrics.start("bet");
+        metrics.failed(new IllegalStateException("backend down"));
+        metrics.invalidInput();
+        invocation.stop();
+
+        assertEquals(1, registry.get("seasonsbot.commands")
+                .tags("command", "bet", "outcome", "error", "exception", "IllegalStateException")
+                .timer().count());
+    }
+
+    @Test
+    void tracksInFlightCommandsAndInvalidInput() {
+        CommandMetrics.Invocation invocation = metrics.start("leaderboard");
+        assertEquals(1, registry.get("seasonsbot.commands.active").tag("command", "leaderboard").gauge().value());
+
+        metrics.invalidInput();
+        invocation.stop();
+
+        assertEquals(0, registry.get("seasonsbot.commands.active").tag("command", "leaderboard").gauge().value());
+        assertEquals(1, registry.get("seasonsbot.commands")
+                .tags("command", "leaderboard", "outcome", "invalid_input", "exception", "none")
+                .timer().count());
+    }
+
+    @Test
+    void ignoresReportsOutsideACommand() {
+        metrics.failed(new RuntimeException());
+        metrics.invalidInput();
+
+        assertTrue(registry.find("seasonsbot.commands").timers().isEmpty());
+    }
+}
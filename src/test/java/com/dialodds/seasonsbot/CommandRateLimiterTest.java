@@ -0,0 +1,64 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long GUILD = 42;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Users: 4 tokens, 1 per second. Guilds: 6 tokens, 1 per second.
+    private final CommandRateLimiter limiter = new CommandRateLimiter(registry, 4, 1, 6, 1, 1,
+            Map.of("nfl_games", 3), 10);
+
+    @Test
+    void chargesEachCommandItsConfiguredCost() {
+        assertNull(limiter.tryAcquire(1, GUILD, "nfl_games", 0));
+        assertNull(limiter.tryAcquire(1, GUILD, "help", 0));
+
+        CommandRateLimiter.Throttle throttle = limiter.tryAcquire(1, GUILD, "nfl_games", 0);
+        assertNotNull(throttle);
+        assertEquals(CommandRateLimiter.Scope.USER, throttle.scope());
+        assertEquals(3000, throttle.retryAfterMillis());
+    }
+
+    @Test
+    void refillsOverTime() {
+        for (int i = 0; i < 4; i++) {
+            assertNull(limiter.tryAcquire(1, 0, "help", 0));
+        }
+        assertNotNull(limiter.tryAcquire(1, 0, "help", 0));
+        assertNull(limiter.tryAcquire(1, 0, "help", SECOND));
+    }
+
+    @Test
+    void sharesTheGuildBucketBetweenUsers() {
+        assertNull(limiter.tryAcquire(1, GUILD, "nfl_games", 0));
+        assertNull(limiter.tryAcquire(2, GUILD, "nfl_games", 0));
+
+        CommandRateLimiter.Throttle throttle = limiter.tryAcquire(3, GUILD, "help", 0);
+        assertNotNull(throttle);
+        assertEquals(CommandRateLimiter.Scope.GUILD, throttle.scope());
+        // A guild refusal doesn't cost the user anything.
+        assertNull(limiter.tryAcquire(3, 0, "help", 0));
+        assertNull(limiter.tryAcquire(3, 0, "nfl_games", 0));
+    }
+
+    @Test
+    void warnsOncePerIntervalAndCountsEveryRefusal() {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(1, 0, "help", 0);
+        }
+        assertTrue(limiter.tryAcquire(1, 0, "help", 0).warn());
+        assertFalse(limiter.tryAcquire(1, 0, "help", 1).warn());
+        assertEquals(2, registry.get("seasonsbot.ratelimit.throttled")
+                .tags("scope", "user", "command", "help").counter().count());
+    }
+}
@@ -0,0 +1,114 @@
+package com.dialodds.seasonsbot;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRecordsTest {
+
+    @Test
+    void onlyNflTeamsHaveFixedIds() {
+        byte chiefs = NflTeams.id("Kansas City Chiefs");
+        assertEquals("Kansas City Chiefs", NflTeams.name(chiefs));
+        assertEquals(NflTeams.UNKNOWN, NflTeams.id("Oakland Raiders"));
+        assertEquals(NflTeams.UNKNOWN, NflTeams.id(null));
+        assertNull(NflTeams.name(NflTeams.UNKNOWN));
+    }
+
+    @Test
+    void findsTeamsByFullNameNicknameOrPrefix() {
+        byte niners = NflTeams.id("San Francisco 49ers");
+        assertEquals(niners, NflTeams.find("san francisco 49ers"));
+        assertEquals(niners, NflTeams.find("49ers"));
+        assertEquals(NflTeams.id("Kansas City Chiefs"), NflTeams.find("Kansas City"));
+        assertEquals(NflTeams.UNKNOWN, NflTeams.find("New York"));
+        assertEquals(NflTeams.UNKNOWN, NflTeams.find("Chiefs:0:1"));
+        assertEquals(NflTeams.UNKNOWN, NflTeams.find("   "));
+    }
+
+    @Test
+    void betTableKeepsEveryColumn() {
+        Date placedAt = Date.from(Instant.parse("2024-09-05T12:00:00Z"));
+        BetTable table = BetTable.of(List.of(
+                new Bet(1, 7, 3, 1985, "HOME", 125, placedAt, null, "Kansas City Chiefs", "Baltimore Ravens"),
+                new Bet(2, 7, 3, 1986, "AWAY", 50, null, "won", "Philadelphia Eagles", "Green Bay Packers"),
+                new Bet(3, 7, 3, 1987, "HOME", 10, null, "lost", "Atlanta Falcons", "Pittsburgh Steelers")));
+
+        assertEquals(3, table.size());
+        assertEquals(placedAt.toInstant(), table.createdAt(0));
+        assertEquals("Kansas City Chiefs", table.teamBetOn(0));
+        assertEquals(BetTable.Result.PENDING, table.result(0));
+        assertEquals("Green Bay Packers", table.teamBetOn(1));
+        assertEquals(BetTable.Result.WON, table.result(1));
+        assertNull(table.createdAt(1));
+        assertEquals(BetTable.Result.LOST, table.result(2));
+        assertEquals(10, table.amount(2));
+    }
+
+    @Test
+    void betTableKeepsOtherTeamNamesAndNeverRunsOutOfIds() {
+        List<Bet> bets = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            bets.add(new Bet(i, 7, 3, 2000 + i, "HOME", 10, null, null, "Team " + i, "Oakland Raiders"));
+        }
+
+        BetTable table = BetTable.of(bets);
+
+        assertEquals("Team 0", table.homeTeam(0));
+        assertEquals("Oakland Raiders", table.awayTeam(0));
+        assertEquals("Team 221", table.homeTeam(221));
+        // The table's dictionary is full by now; further names are kept beside their row.
+        assertEquals("Team 299", table.homeTeam(299));
+        assertEquals("Oakland Raiders", table.awayTeam(299));
+    }
+
+    /**
+     * Heap retained by a season's worth of bets as the Jackson beans, with a
+     * Date and fresh team and result strings per bet as deserializing gives,
+     * against the same bets in a {@link BetTable}.
+     */
+    @Test
+    void betTableRetainsAFractionOfTheBeans() throws InterruptedException {
+        int count = 100_000;
+        long beans = retainedBy(() -> bets(count));
+        long table = retainedBy(() -> BetTable.of(bets(count)));
+
+        System.out.printf("%d bets: beans %d KB, table %d KB%n", count, beans / 1024, table / 1024);
+        assertTrue(table * 3 < beans, "the table should retain under a third of the beans' heap");
+    }
+
+    private static List<Bet> bets(int count) {
+        String[] teams = {"Kansas City Chiefs", "Baltimore Ravens", "Philadelphia Eagles", "Green Bay Packers"};
+        List<Bet> bets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            bets.add(new Bet(i, i % 5000, 3, 2000 + i % 272, i % 2 == 0 ? "HOME" : "AWAY", 10 + i % 500,
+                    new Date(1_725_000_000_000L + i * 1000L), new String(i % 3 == 0 ? "won" : "lost"),
+                    new String(teams[i % 4]), new String(teams[(i + 1) % 4])));
+        }
+        return bets;
+    }
+
+    private static long retainedBy(Supplier<Object> build) throws InterruptedException {
+        long before = usedAfterGc();
+        Object built = build.get();
+        long after = usedAfterGc();
+        Reference.reachabilityFence(built);
+        return after - before;
+    }
+
+    private static long usedAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
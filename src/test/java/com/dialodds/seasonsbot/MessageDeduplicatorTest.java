@@ -0,0 +1,79 @@
+package com.dialodds.seasonsbot;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageDeduplicatorTest {
+
+    private static final long DISCORD_EPOCH = 1420070400000L;
+    private static final long NOW = 1726000000000L;
+
+    private static long snowflake(long createdAtMillis, int sequence) {
+        return ((createdAtMillis - DISCORD_EPOCH) << 22) | sequence;
+    }
+
+    @Test
+    void rejectsRepeatWithinWindow() {
+        MessageDeduplicator deduplicator = new MessageDeduplicator(64, 5);
+        long id = snowflake(NOW, 1);
+
+        assertTrue(deduplicator.firstSeen(id, NOW));
+        assertFalse(deduplicator.firstSeen(id, NOW + 1000));
+    }
+
+    @Test
+    void acceptsAgainOnceExpired() {
+        MessageDeduplicator deduplicator = new MessageDeduplicator(64, 5);
+        long id = snowflake(NOW, 1);
+
+        assertTrue(deduplicator.firstSeen(id, NOW));
+        // Expired slots are reclaimed by other inserts, after which the ID is forgotten.
+        for (int i = 0; i < 64; i++) {
+            deduplicator.firstSeen(snowflake(NOW + 10_000, i + 2), NOW + 10_000);
+        }
+        assertTrue(deduplicator.firstSeen(id, NOW + 10_000));
+    }
+
+    @Test
+    void staysBoundedUnderBurst() {
+        MessageDeduplicator deduplicator = new MessageDeduplicator(64, 5);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(deduplicator.firstSeen(snowflake(NOW, i + 1), NOW));
+        }
+        long recent = snowflake(NOW, 10_000);
+        assertFalse(deduplicator.firstSeen(recent, NOW));
+    }
+
+    @Test
+    void rejectsRepeatStoredPastASlotThatHasSinceExpired() {
+        MessageDeduplicator deduplicator = new MessageDeduplicator(64, 5);
+        long older = snowflake(NOW, 1);
+        long id = snowflake(NOW + 4000, 1);
+        for (int sequence = 2; (deduplicator.spread(id) & 63) != (deduplicator.spread(older) & 63); sequence++) {
+            id = snowflake(NOW + 4000, sequence);
+        }
+
+        assertTrue(deduplicator.firstSeen(older, NOW));
+        // Lands one slot further along because the older message still holds the first one.
+        assertTrue(deduplicator.firstSeen(id, NOW + 4000));
+        // The older message has expired and its slot is free again, but the replay must still be caught.
+        assertFalse(deduplicator.firstSeen(id, NOW + 6000));
+    }
+
+    @Test
+    void rejectsAReplayOfAnOldMessageWithinTheWindow() {
+        MessageDeduplicator deduplicator = new MessageDeduplicator(64, 900);
+        // Created two minutes before the bot first saw it, as after a gateway resume.
+        long id = snowflake(NOW - 120_000, 1);
+        long other = snowflake(NOW + 30_000, 1);
+        for (int sequence = 2; (deduplicator.spread(other) & 63) != (deduplicator.spread(id) & 63); sequence++) {
+            other = snowflake(NOW + 30_000, sequence);
+        }
+
+        assertTrue(deduplicator.firstSeen(id, NOW));
+        // Probes the same slot; it must not treat the old message's entry as expired.
+        assertTrue(deduplicator.firstSeen(other, NOW + 30_000));
+        assertFalse(deduplicator.firstSeen(id, NOW + 30_000));
+    }
+}
@@ -0,0 +1,168 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class OutboundSchedulerTest {
+
+    private static final long CHANNEL = 7;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OutboundScheduler scheduler = new OutboundScheduler(registry, 3, 5, 8000, 300);
+    private final List<String> sent = new ArrayList<>();
+    private final Deque<Runnable> inFlight = new ArrayDeque<>();
+
+    @Test
+    void sendsRepliesBeforeEditsAndEditsBeforeCosmeticActions() {
+        submit(reply("first"));
+        submit(cosmetic("reaction"));
+        submit(edit(100, "page 2"));
+        submit(reply("second"));
+
+        finishAll();
+
+        assertEquals(List.of("first", "second", "page 2", "reaction"), sent);
+    }
+
+    @Test
+    void dropsAQueuedTypingIndicatorOnceAReplyIsSent() {
+        submit(reply("busy"));
+        submit(typing());
+        submit(reply("answer"));
+
+        finishAll();
+
+        assertEquals(List.of("busy", "answer"), sent);
+        assertEquals(1, registry.get("seasonsbot.outbound.coalesced").tag("kind", "typing").counter().count());
+        assertEquals(0, registry.get("seasonsbot.outbound.queued").gauge().value());
+    }
+
+    @Test
+    void keepsOnlyTheLatestQueuedEditOfAMessage() {
+        submit(reply("busy"));
+        submit(edit(100, "page 2"));
+        submit(edit(100, "page 3"));
+        submit(edit(200, "other message"));
+        submit(edit(100, "page 4"));
+
+        finishAll();
+
+        assertEquals(List.of("busy", "page 4", "other message"), sent);
+        assertEquals(2, registry.get("seasonsbot.outbound.coalesced").tag("kind", "edit").counter().count());
+    }
+
+    @Test
+    void mergesTypingIndicators() {
+        submit(typing());
+        submit(typing());
+        finishAll();
+        submit(typing());
+
+        assertEquals(List.of("typing"), sent);
+        assertEquals(2, registry.get("seasonsbot.outbound.coalesced").tag("kind", "typing").counter().count());
+    }
+
+    @Test
+    void aReplyLetsTheNextCommandShowTypingAgain() {
+        submit(typing());
+        submit(reply("done"));
+        finishAll();
+        submit(typing());
+        finishAll();
+
+        assertEquals(List.of("typing", "done", "typing"), sent);
+    }
+
+    @Test
+    void dropsCosmeticActionsAndEditsButKeepsRepliesWhenAChannelIsFull() {
+        submit(reply("in flight"));
+        submit(cosmetic("reaction"));
+        submit(reply("a"));
+        submit(reply("b"));
+        assertEquals(3, registry.get("seasonsbot.outbound.queued").gauge().value());
+
+        submit(reply("c"));
+        submit(edit(100, "page 2"));
+        submit(reply("d"));
+
+        finishAll();
+        assertEquals(List.of("in flight", "a", "b", "c", "d"), sent);
+        assertEquals(1, registry.get("seasonsbot.outbound.dropped").tag("kind", "cosmetic").counter().count());
+        assertEquals(1, registry.get("seasonsbot.outbound.dropped").tag("kind", "edit").counter().count());
+        assertNull(registry.find("seasonsbot.outbound.dropped").tag("kind", "reply").counter());
+        assertEquals(0, registry.get("seasonsbot.outbound.queued").gauge().value());
+    }
+
+    @Test
+    void dropsRepliesPastTheHardCap() {
+        submit(reply("in flight"));
+        for (int i = 1; i <= 6; i++) {
+            submit(reply("r" + i));
+        }
+
+        finishAll();
+        assertEquals(List.of("in flight", "r1", "r2", "r3", "r4", "r5"), sent);
+        assertEquals(1, registry.get("seasonsbot.outbound.dropped").tag("kind", "reply").counter().count());
+    }
+
+    @Test
+    void interactionEditsDoNotWaitForTheirChannel() {
+        submit(reply("in flight"));
+        submit(reply("queued"));
+        @SuppressWarnings("unchecked")
+        RestAction<Object> edit = mock(RestAction.class);
+
+        scheduler.edit(100, edit, null);
+
+        verify(edit).queue(any(), any());
+        assertEquals(List.of("in flight"), sent);
+    }
+
+    private void submit(OutboundScheduler.Task task) {
+        scheduler.submit(CHANNEL, task);
+    }
+
+    private void finishAll() {
+        while (!inFlight.isEmpty()) {
+            inFlight.poll().run();
+        }
+    }
+
+    private OutboundScheduler.Task reply(String label) {
+        return new OutboundScheduler.Task(OutboundScheduler.Kind.REPLY, 0, sender(label));
+    }
+
+    private OutboundScheduler.Task edit(long messageId, String label) {
+        return new OutboundScheduler.Task(OutboundScheduler.Kind.EDIT, messageId, sender(label));
+    }
+
+    private OutboundScheduler.Task cosmetic(String label) {
+        return new OutboundScheduler.Task(OutboundScheduler.Kind.COSMETIC, 0, sender(label));
+    }
+
+    private OutboundScheduler.Task typing() {
+        return new OutboundScheduler.Task(OutboundScheduler.Kind.COSMETIC, 0, sender("typing"), true);
+    }
+
+    /**
+     * Records the send and holds the completion until {@link #finishAll()}.
+     */
+    private Consumer<Runnable> sender(String label) {
+        return done -> {
+            sent.add(label);
+            inFlight.add(done);
+        };
+    }
+}
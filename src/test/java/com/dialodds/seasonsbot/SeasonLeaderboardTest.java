@@ -0,0 +1,60 @@
+package com.dialodds.seasonsbot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeasonLeaderboardTest {
+
+    @Test
+    void ranksMatchAFullSortAfterDeltas() {
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>();
+        for (int id = 1; id <= 500; id++) {
+            users.add(new User(id, "d" + id, "user" + id, random.nextInt(2000)));
+        }
+        SeasonLeaderboard leaderboard = new SeasonLeaderboard();
+        leaderboard.sync(users);
+
+        for (int i = 0; i < 1000; i++) {
+            User user = users.get(random.nextInt(users.size()));
+            int delta = random.nextInt(401) - 200;
+            user.setCoins(user.getCoins() + delta);
+            assertTrue(leaderboard.applyDelta(user.getId(), delta));
+        }
+
+        List<User> sorted = new ArrayList<>(users);
+        sorted.sort(Comparator.comparingInt(User::getCoins).reversed().thenComparingInt(User::getId));
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, leaderboard.rankOf(sorted.get(i).getId()));
+        }
+        List<SeasonLeaderboard.Standing> page = leaderboard.page(100, 10);
+        for (SeasonLeaderboard.Standing standing : page) {
+            assertEquals(sorted.get(standing.rank() - 1).getId(), standing.userId());
+        }
+    }
+
+    @Test
+    void syncDropsUsersWhoLeft() {
+        SeasonLeaderboard leaderboard = new SeasonLeaderboard();
+        leaderboard.sync(List.of(new User(1, "a", "alice", 100), new User(2, "b", "bob", 50)));
+        leaderboard.sync(List.of(new User(2, "b", "bob", 150)));
+
+        assertEquals(1, leaderboard.size());
+        assertEquals(0, leaderboard.rankOf(1));
+        assertNull(leaderboard.standingOf("a"));
+        assertEquals(150, leaderboard.standingOf("b").coins());
+    }
+
+    @Test
+    void unknownUserDeltaIsReported() {
+        SeasonLeaderboard leaderboard = new SeasonLeaderboard();
+        assertFalse(leaderboard.applyDelta(7, 10));
+        assertTrue(leaderboard.top(10).isEmpty());
+    }
+}
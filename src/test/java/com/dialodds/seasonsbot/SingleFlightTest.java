@@ -0,0 +1,101 @@
+package com.dialodds.seasonsbot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void burstOfIdenticalCallsHitsTheBackendOnce() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        AtomicInteger backendCalls = new AtomicInteger();
+        CompletableFuture<String> backend = new CompletableFuture<>();
+        int callers = 50;
+        CountDownLatch ready = new CountDownLatch(callers);
+        CountDownLatch go = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<CompletableFuture<String>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return flights.execute("/api/nfl/games/5", () -> {
+                        backendCalls.incrementAndGet();
+                        return backend;
+                    });
+                }));
+            }
+            ready.await();
+            go.countDown();
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (Future<CompletableFuture<String>> result : results) {
+                futures.add(result.get());
+            }
+
+            backend.complete("games");
+            for (CompletableFuture<String> future : futures) {
+                assertEquals("games", future.join());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, backendCalls.get());
+        assertEquals(1, flights.started());
+        assertEquals(callers - 1, flights.joined());
+        assertEquals(0, flights.inFlight());
+    }
+
+    @Test
+    void differentKeysAreNotShared() {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+        CompletableFuture<Integer> week5 = new CompletableFuture<>();
+        CompletableFuture<Integer> week6 = new CompletableFuture<>();
+
+        CompletableFuture<Integer> a = flights.execute("5", () -> week5);
+        CompletableFuture<Integer> b = flights.execute("6", () -> week6);
+        week5.complete(5);
+        week6.complete(6);
+
+        assertEquals(5, a.join());
+        assertEquals(6, b.join());
+        assertEquals(2, flights.started());
+    }
+
+    @Test
+    void aCompletedCallIsNotReused() {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        flights.execute("k", () -> CompletableFuture.completedFuture(calls.incrementAndGet())).join();
+        int second = flights.execute("k", () -> CompletableFuture.completedFuture(calls.incrementAndGet())).join();
+
+        assertEquals(2, second);
+    }
+
+    @Test
+    void failuresAreSharedAndThenForgotten() {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+        CompletableFuture<Integer> backend = new CompletableFuture<>();
+
+        CompletableFuture<Integer> first = flights.execute("k", () -> backend);
+        CompletableFuture<Integer> second = flights.execute("k", () -> fail("should join the running call"));
+        backend.completeExceptionally(new IllegalStateException("down"));
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(7, flights.execute("k", () -> CompletableFuture.completedFuture(7)).join());
+    }
+}
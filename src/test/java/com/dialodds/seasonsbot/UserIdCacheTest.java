@@ -0,0 +1,65 @@
+package com.dialodds.seasonsbot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserIdCacheTest {
+
+    private ApiClient apiClient;
+    private UserIdCache cache;
+
+    @BeforeEach
+    void setUp() {
+        apiClient = mock(ApiClient.class);
+        cache = new UserIdCache(apiClient, new SimpleMeterRegistry(), 100, 60);
+    }
+
+    @Test
+    void concurrentLookupsShareOneRequest() {
+        CompletableFuture<ResponseEntity<Integer>> pending = new CompletableFuture<>();
+        when(apiClient.createUserAsync("123", "TestUser")).thenReturn(pending);
+
+        CompletableFuture<Integer> first = cache.resolveAsync("123", "TestUser");
+        CompletableFuture<Integer> second = cache.resolveAsync("123", "TestUser");
+        pending.complete(ResponseEntity.ok(7));
+
+        assertEquals(7, first.join());
+        assertEquals(7, second.join());
+        assertEquals(7, cache.resolve("123", "TestUser"));
+        verify(apiClient, times(1)).createUserAsync("123", "TestUser");
+    }
+
+    @Test
+    void notFoundInvalidatesEntry() {
+        when(apiClient.createUserAsync("123", "TestUser"))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(7)));
+        cache.resolve("123", "TestUser");
+
+        assertThrows(HttpClientErrorException.NotFound.class, () -> cache.invalidateOnNotFound("123", () -> {
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "", null, null, null);
+        }));
+        cache.resolve("123", "TestUser");
+
+        verify(apiClient, times(2)).createUserAsync("123", "TestUser");
+    }
+
+    @Test
+    void failedLookupIsNotCached() {
+        when(apiClient.createUserAsync("123", "TestUser"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("down")))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(7)));
+
+        assertThrows(IllegalStateException.class, () -> cache.resolve("123", "TestUser"));
+        assertEquals(7, cache.resolve("123", "TestUser"));
+        assertEquals(1, cache.size());
+    }
+}